@@ -0,0 +1,90 @@
+import java.awt.AWTException;
+import java.awt.BufferCapabilities;
+import java.awt.Canvas;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.ImageCapabilities;
+import java.awt.Toolkit;
+import java.awt.image.BufferStrategy;
+
+/**
+ * Canvas that is drawn actively through a {@link BufferStrategy} instead of
+ * waiting for Swing to schedule a repaint. Frames are rendered into an
+ * accelerated back buffer and shown with page flipping where the platform
+ * supports it, falling back to blitting otherwise.
+ */
+public class ActiveRenderCanvas extends Canvas {
+
+    /** Callback that draws one complete frame. */
+    public interface FrameRenderer {
+        void render(Graphics2D g, int width, int height);
+    }
+
+    private static final int NUM_BUFFERS = 2;
+
+    private final FrameRenderer renderer;
+    private BufferStrategy strategy;
+
+    public ActiveRenderCanvas(FrameRenderer renderer) {
+        this.renderer = renderer;
+        // All painting happens in renderFrame, never through the AWT paint path
+        this.setIgnoreRepaint(true);
+        this.setBackground(Color.BLACK);
+        // Keyboard input is handled by the enclosing frame
+        this.setFocusable(false);
+    }
+
+    /**
+     * Draws and shows one frame. Does nothing until the canvas is on screen.
+     * Lost or restored back buffers are redrawn before being shown.
+     */
+    public void renderFrame() {
+        if (!isDisplayable() || getWidth() <= 0 || getHeight() <= 0) return;
+        if (strategy == null) {
+            strategy = createStrategy();
+        }
+
+        do {
+            do {
+                Graphics2D g = (Graphics2D) strategy.getDrawGraphics();
+                try {
+                    g.setColor(Color.BLACK);
+                    g.fillRect(0, 0, getWidth(), getHeight());
+                    renderer.render(g, getWidth(), getHeight());
+                } finally {
+                    g.dispose();
+                }
+            } while (strategy.contentsRestored());
+            strategy.show();
+        } while (strategy.contentsLost());
+
+        // Flush the pipeline so the frame reaches the screen now
+        Toolkit.getDefaultToolkit().sync();
+    }
+
+    /**
+     * Requests an accelerated page-flipping strategy and falls back to
+     * whatever the platform offers if flipping is unavailable.
+     */
+    private BufferStrategy createStrategy() {
+        BufferCapabilities flipping = new BufferCapabilities(
+                new ImageCapabilities(true), new ImageCapabilities(true),
+                BufferCapabilities.FlipContents.UNDEFINED);
+        try {
+            createBufferStrategy(NUM_BUFFERS, flipping);
+        } catch (AWTException e) {
+            createBufferStrategy(NUM_BUFFERS);
+        }
+        return getBufferStrategy();
+    }
+
+    @Override
+    public void removeNotify() {
+        // The strategy belongs to the native peer being destroyed
+        if (strategy != null) {
+            strategy.dispose();
+            strategy = null;
+        }
+        super.removeNotify();
+    }
+}
@@ -0,0 +1,572 @@
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Software mixer that plays any number of sounds through a single output
+ * line. A dedicated thread mixes up to {@link #MAX_VOICES} voices into small
+ * fixed-size buffers and writes them to the output, which blocks until the
+ * device has room, so the thread runs at the device's pace.
+ * <p>
+ * Other threads never touch the voices. They post play, stop, pause and gain
+ * requests to a lock-free queue that the mixer thread drains before every
+ * buffer, so requesting a sound never blocks the caller. Each voice has its
+ * own gain and pan and is resampled to the mix rate as it is mixed. A voice
+ * either plays a decoded sample or a {@link Stream} that another thread keeps
+ * filling, which is how long tracks are played without decoding them whole.
+ * <p>
+ * When every voice is busy, a new sound replaces the non-looping voice that
+ * started longest ago. Looping voices (music) are never stolen.
+ */
+public class AudioMixer {
+
+    /** Format everything is mixed in and written to the output. */
+    public static final AudioFormat FORMAT = new AudioFormat(44_100f, 16, 2, true, false);
+    /** Sample frames mixed per buffer, about 6 ms. */
+    public static final int BUFFER_FRAMES = 256;
+    /** Most sounds playing at once. */
+    public static final int MAX_VOICES = 16;
+    /** Output buffer length in mix buffers; more is safer against stalls but adds latency. */
+    private static final int OUTPUT_BUFFERS = 4;
+
+    /** Where mixed audio goes. */
+    public interface Output {
+        /**
+         * Opens the device.
+         *
+         * @param bufferBytes Suggested size of the device's buffer
+         */
+        void open(AudioFormat format, int bufferBytes) throws LineUnavailableException;
+
+        /**
+         * Writes one buffer, blocking until the device accepts it.
+         *
+         * @return true if the device ran out of audio before this write
+         */
+        boolean write(byte[] data, int length);
+
+        void close();
+    }
+
+    /** Plays through a {@link SourceDataLine} of the default mixer. */
+    public static class LineOutput implements Output {
+        private SourceDataLine line;
+        private boolean started;
+
+        @Override
+        public void open(AudioFormat format, int bufferBytes) throws LineUnavailableException {
+            line = AudioSystem.getSourceDataLine(format);
+            line.open(format, bufferBytes);
+            line.start();
+            started = false;
+        }
+
+        @Override
+        public boolean write(byte[] data, int length) {
+            // An empty buffer after the first write means the device played everything
+            boolean underrun = started && line.available() >= line.getBufferSize();
+            started = true;
+            line.write(data, 0, length);
+            return underrun;
+        }
+
+        @Override
+        public void close() {
+            line.drain();
+            line.close();
+        }
+    }
+
+    /**
+     * Discards the audio, so the mixer can run without a sound device. By
+     * default it consumes buffers at the rate a real device would.
+     */
+    public static class NullOutput implements Output {
+        private final boolean realTime;
+        private double nanosPerByte;
+        private long bufferNanos; // How much audio the pretend device holds
+        private long playedUntil; // When everything written so far would have been played
+        private boolean started;
+
+        /** Creates an output that paces itself like a real device. */
+        public NullOutput() {
+            this(true);
+        }
+
+        /**
+         * @param realTime Whether writes wait for the buffer's playing time,
+         *                 instead of returning immediately
+         */
+        public NullOutput(boolean realTime) {
+            this.realTime = realTime;
+        }
+
+        @Override
+        public void open(AudioFormat format, int bufferBytes) {
+            nanosPerByte = 1_000_000_000.0 / (format.getFrameRate() * format.getFrameSize());
+            bufferNanos = (long) (bufferBytes * nanosPerByte);
+            started = false;
+        }
+
+        @Override
+        public boolean write(byte[] data, int length) {
+            if (!realTime) return false;
+            long now = System.nanoTime();
+            boolean underrun = false;
+            if (!started || playedUntil < now) {
+                underrun = started;
+                playedUntil = now;
+                started = true;
+            }
+            playedUntil += (long) (length * nanosPerByte);
+            // Block while the pretend device's buffer is full
+            long wait = playedUntil - bufferNanos - now;
+            if (wait > 0) LockSupport.parkNanos(wait);
+            return underrun;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    /** Mixer statistics at one point in time. Times are in nanoseconds. */
+    public static class Metrics {
+        /** Buffers mixed and written so far. */
+        public final long buffers;
+        /** Average and worst time spent mixing one buffer. */
+        public final long averageMixNanos, maxMixNanos;
+        /** Average and worst time from a play request until its first samples were mixed. */
+        public final long averageStartNanos, maxStartNanos;
+        /** Times the output ran dry because the mixer fell behind. */
+        public final long underruns;
+        /** Voices cut off to make room, and requests dropped because every voice was looping. */
+        public final long steals, dropped;
+        /** Voices playing when the last buffer was mixed. */
+        public final int activeVoices;
+
+        Metrics(long buffers, long averageMixNanos, long maxMixNanos, long averageStartNanos,
+                long maxStartNanos, long underruns, long steals, long dropped, int activeVoices) {
+            this.buffers = buffers;
+            this.averageMixNanos = averageMixNanos;
+            this.maxMixNanos = maxMixNanos;
+            this.averageStartNanos = averageStartNanos;
+            this.maxStartNanos = maxStartNanos;
+            this.underruns = underruns;
+            this.steals = steals;
+            this.dropped = dropped;
+            this.activeVoices = activeVoices;
+        }
+    }
+
+    /**
+     * Audio handed to a voice piece by piece, such as music decoded on the
+     * fly. One thread writes into a ring buffer that the mixer thread reads,
+     * and the writer blocks while the buffer is full, so it never gets more
+     * than a fraction of a second ahead of playback.
+     */
+    public static final class Stream {
+        private final long id;
+        private final int frameSize, channels;
+        private final float sampleRate;
+        private final byte[] ring;
+        private final int mask;
+        private volatile long writePos, readPos; // Total bytes written and read
+        private volatile boolean ended, closed;
+
+        Stream(long id, AudioFormat format, int capacity) {
+            this.id = id;
+            this.frameSize = format.getFrameSize();
+            this.channels = format.getChannels();
+            this.sampleRate = format.getSampleRate();
+            this.ring = new byte[capacity];
+            this.mask = capacity - 1;
+        }
+
+        /** @return id of the voice playing the stream, for pausing or changing it */
+        public long getId() {
+            return id;
+        }
+
+        /**
+         * Appends whole sample frames, blocking while the buffer is full.
+         *
+         * @return false if the voice is gone and the data was discarded
+         */
+        public boolean write(byte[] data, int offset, int length) {
+            int done = 0;
+            while (done < length) {
+                if (closed) return false;
+                long w = writePos;
+                int space = (int) (ring.length - (w - readPos));
+                if (space == 0) {
+                    LockSupport.parkNanos(1_000_000L);
+                    continue;
+                }
+                int n = Math.min(space, length - done);
+                int at = (int) (w & mask);
+                int first = Math.min(n, ring.length - at);
+                System.arraycopy(data, offset + done, ring, at, first);
+                System.arraycopy(data, offset + done + first, ring, 0, n - first);
+                writePos = w + n;
+                done += n;
+            }
+            return true;
+        }
+
+        /** Marks the end of the data; the voice stops once it has played what is buffered. */
+        public void end() {
+            ended = true;
+        }
+
+        /** @return true once the voice is gone, after which writes are discarded */
+        public boolean isClosed() {
+            return closed;
+        }
+    }
+
+    /** A request from another thread. */
+    private static final class Command {
+        static final int PLAY = 0, STOP = 1, PAUSE = 2, RESUME = 3, GAIN = 4;
+
+        final int type;
+        final long id;
+        final SampleCache.Sample sample;
+        final Stream stream;
+        final float gain, pan;
+        final boolean loop;
+        final long postedAt = System.nanoTime();
+
+        Command(int type, long id, SampleCache.Sample sample, Stream stream, float gain, float pan, boolean loop) {
+            this.type = type;
+            this.id = id;
+            this.sample = sample;
+            this.stream = stream;
+            this.gain = gain;
+            this.pan = pan;
+            this.loop = loop;
+        }
+    }
+
+    /** One playing sound. Only used by the mixer thread. */
+    private static final class Voice {
+        long id; // 0 when free
+        SampleCache.Sample sample; // Either a sample
+        Stream stream;             // or a stream
+        int channels, frames;
+        double position, step; // Position in source frames, and source frames per mixed frame
+        float currentL, currentR, nextL, nextR; // Stream frames being interpolated between
+        float gain, pan;
+        boolean loop, paused;
+        long startedAt;
+    }
+
+    private final Output output;
+    private final ConcurrentLinkedQueue<Command> commands = new ConcurrentLinkedQueue<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final Voice[] voices = new Voice[MAX_VOICES];
+    private final float[] mix = new float[BUFFER_FRAMES * 2];
+    private final byte[] out = new byte[BUFFER_FRAMES * 4];
+    private volatile Thread thread;
+
+    // Metrics, written by the mixer thread only
+    private volatile long buffers, mixNanosTotal, maxMixNanos;
+    private volatile long starts, startNanosTotal, maxStartNanos;
+    private volatile long underruns, steals, dropped;
+    private volatile int activeVoices;
+
+    /**
+     * @param output Where the mixed audio is written
+     */
+    public AudioMixer(Output output) {
+        this.output = output;
+        for (int i = 0; i < voices.length; i++) voices[i] = new Voice();
+    }
+
+    /**
+     * Opens the output and starts the mixer thread.
+     *
+     * @throws LineUnavailableException if the output can't be opened
+     */
+    public synchronized void start() throws LineUnavailableException {
+        if (thread != null) return;
+        output.open(FORMAT, BUFFER_FRAMES * FORMAT.getFrameSize() * OUTPUT_BUFFERS);
+        thread = new Thread(this::run, "audio-mixer");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MAX_PRIORITY);
+        thread.start();
+    }
+
+    /** Stops the mixer thread and closes the output. Every voice is dropped. */
+    public void stop() {
+        Thread t;
+        synchronized (this) {
+            t = thread;
+            thread = null;
+        }
+        if (t == null) return;
+        boolean interrupted = false;
+        while (t.isAlive()) {
+            try {
+                t.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    public boolean isRunning() {
+        return thread != null;
+    }
+
+    /**
+     * Starts playing a sample.
+     *
+     * @param gain Volume scale between 0.0 (mute) and 1.0 (full volume)
+     * @param pan  Balance from -1.0 (left only) to 1.0 (right only)
+     * @param loop Whether to repeat the sample until stopped
+     * @return id of the voice, for stopping or changing it later
+     */
+    public long play(SampleCache.Sample sample, float gain, float pan, boolean loop) {
+        long id = nextId.getAndIncrement();
+        commands.add(new Command(Command.PLAY, id, sample, null, gain, pan, loop));
+        return id;
+    }
+
+    /**
+     * Starts a voice fed by a stream. Streams are never stolen by other sounds.
+     *
+     * @param format     Format of the data that will be written; must be
+     *                   16-bit signed little-endian PCM
+     * @param gain       Volume scale between 0.0 (mute) and 1.0 (full volume)
+     * @param bufferMs   Roughly how much audio the stream buffers ahead
+     * @return the stream to write the audio to
+     */
+    public Stream playStream(AudioFormat format, float gain, int bufferMs) {
+        if (!format.matches(SampleCache.pcm16(format))) {
+            throw new IllegalArgumentException("Streams must be 16-bit little-endian PCM: " + format);
+        }
+        int bytes = (int) (format.getFrameRate() * format.getFrameSize() * bufferMs / 1000);
+        int capacity = Integer.highestOneBit(Math.max(bytes, format.getFrameSize() * BUFFER_FRAMES) - 1) << 1;
+        Stream stream = new Stream(nextId.getAndIncrement(), format, capacity);
+        commands.add(new Command(Command.PLAY, stream.id, null, stream, gain, 0, true));
+        return stream;
+    }
+
+    /** Stops a voice. Does nothing if it already finished. */
+    public void stop(long id) {
+        commands.add(new Command(Command.STOP, id, null, null, 0, 0, false));
+    }
+
+    /** Pauses a voice, keeping its position. */
+    public void pause(long id) {
+        commands.add(new Command(Command.PAUSE, id, null, null, 0, 0, false));
+    }
+
+    /** Continues a paused voice. */
+    public void resume(long id) {
+        commands.add(new Command(Command.RESUME, id, null, null, 0, 0, false));
+    }
+
+    /** Changes the volume of a voice. */
+    public void setGain(long id, float gain) {
+        commands.add(new Command(Command.GAIN, id, null, null, gain, 0, false));
+    }
+
+    /** @return the mixer's statistics so far */
+    public Metrics getMetrics() {
+        long b = buffers, s = starts;
+        return new Metrics(b, b == 0 ? 0 : mixNanosTotal / b, maxMixNanos,
+                s == 0 ? 0 : startNanosTotal / s, maxStartNanos,
+                underruns, steals, dropped, activeVoices);
+    }
+
+    private void run() {
+        Thread self = Thread.currentThread();
+        try {
+            while (thread == self) {
+                long start = System.nanoTime();
+                Command c;
+                while ((c = commands.poll()) != null) apply(c, start);
+                mixBuffer();
+                long mixNanos = System.nanoTime() - start;
+                mixNanosTotal += mixNanos;
+                if (mixNanos > maxMixNanos) maxMixNanos = mixNanos;
+                buffers++;
+                if (output.write(out, out.length)) underruns++;
+            }
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        } finally {
+            output.close();
+            for (Voice v : voices) release(v);
+            Command c;
+            while ((c = commands.poll()) != null) {
+                if (c.stream != null) c.stream.closed = true;
+            }
+        }
+    }
+
+    private void apply(Command c, long now) {
+        if (c.type == Command.PLAY) {
+            Voice v = freeVoice();
+            if (v == null) {
+                dropped++;
+                if (c.stream != null) c.stream.closed = true;
+                return;
+            }
+            release(v);
+            v.id = c.id;
+            v.sample = c.sample;
+            v.stream = c.stream;
+            if (c.stream != null) {
+                v.channels = c.stream.channels;
+                v.position = 1; // Read the first frame straight away
+                v.step = c.stream.sampleRate / FORMAT.getSampleRate();
+                v.currentL = v.currentR = v.nextL = v.nextR = 0;
+            } else {
+                v.channels = c.sample.format.getChannels();
+                v.frames = c.sample.getFrameCount();
+                v.position = 0;
+                v.step = c.sample.format.getSampleRate() / FORMAT.getSampleRate();
+            }
+            v.gain = c.gain;
+            v.pan = Math.max(-1, Math.min(1, c.pan));
+            v.loop = c.loop;
+            v.paused = false;
+            v.startedAt = now;
+            long latency = now - c.postedAt;
+            starts++;
+            startNanosTotal += latency;
+            if (latency > maxStartNanos) maxStartNanos = latency;
+            return;
+        }
+        for (Voice v : voices) {
+            if (v.id != c.id) continue;
+            switch (c.type) {
+                case Command.STOP -> release(v);
+                case Command.PAUSE -> v.paused = true;
+                case Command.RESUME -> v.paused = false;
+                case Command.GAIN -> v.gain = c.gain;
+            }
+        }
+    }
+
+    /** Frees a voice, closing its stream so the writer stops. */
+    private static void release(Voice v) {
+        if (v.stream != null) v.stream.closed = true;
+        v.id = 0;
+        v.sample = null;
+        v.stream = null;
+    }
+
+    /** @return a free voice, or the oldest non-looping voice, or null if all are looping */
+    private Voice freeVoice() {
+        Voice oldest = null;
+        for (Voice v : voices) {
+            if (v.id == 0) return v;
+            if (!v.loop && (oldest == null || v.startedAt < oldest.startedAt)) oldest = v;
+        }
+        if (oldest != null) steals++;
+        return oldest;
+    }
+
+    private void mixBuffer() {
+        Arrays.fill(mix, 0);
+        int active = 0;
+        for (Voice v : voices) {
+            if (v.id == 0 || v.paused) continue;
+            active++;
+            if (v.stream != null) mixStream(v);
+            else mixVoice(v);
+        }
+        activeVoices = active;
+
+        for (int i = 0; i < mix.length; i++) {
+            int s = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, Math.round(mix[i])));
+            out[i * 2] = (byte) s;
+            out[i * 2 + 1] = (byte) (s >> 8);
+        }
+    }
+
+    /** Adds one buffer of a voice to the mix, resampling linearly. */
+    private void mixVoice(Voice v) {
+        byte[] data = v.sample.data;
+        int channels = v.channels;
+        float left = v.gain * Math.min(1, 1 - v.pan);
+        float right = v.gain * Math.min(1, 1 + v.pan);
+        double pos = v.position;
+        for (int f = 0; f < BUFFER_FRAMES; f++) {
+            if (pos >= v.frames) {
+                if (!v.loop || v.frames == 0) {
+                    release(v);
+                    return;
+                }
+                pos -= v.frames;
+            }
+            int i = (int) pos;
+            float frac = (float) (pos - i);
+            int next = i + 1 < v.frames ? i + 1 : (v.loop ? 0 : i);
+            float l = lerp(data, i, next, 0, channels, frac);
+            float r = channels > 1 ? lerp(data, i, next, 1, channels, frac) : l;
+            mix[f * 2] += l * left;
+            mix[f * 2 + 1] += r * right;
+            pos += v.step;
+        }
+        v.position = pos;
+    }
+
+    /**
+     * Adds one buffer of a stream voice to the mix, resampling linearly. If
+     * the writer falls behind, the last frame is held until more arrives.
+     */
+    private void mixStream(Voice v) {
+        Stream s = v.stream;
+        byte[] ring = s.ring;
+        int frameSize = s.frameSize;
+        long read = s.readPos, written = s.writePos;
+        float left = v.gain * Math.min(1, 1 - v.pan);
+        float right = v.gain * Math.min(1, 1 + v.pan);
+        for (int f = 0; f < BUFFER_FRAMES; f++) {
+            while (v.position >= 1) {
+                if (written - read < frameSize) {
+                    if (s.ended) {
+                        s.readPos = read;
+                        release(v);
+                        return;
+                    }
+                    v.position = 1; // Starved: hold the last frame
+                    break;
+                }
+                int at = (int) (read & s.mask);
+                v.currentL = v.nextL;
+                v.currentR = v.nextR;
+                v.nextL = sample(ring, at);
+                v.nextR = v.channels > 1 ? sample(ring, at + 2) : v.nextL;
+                read += frameSize;
+                v.position -= 1;
+            }
+            float frac = (float) Math.min(1, v.position);
+            mix[f * 2] += (v.currentL + (v.nextL - v.currentL) * frac) * left;
+            mix[f * 2 + 1] += (v.currentR + (v.nextR - v.currentR) * frac) * right;
+            v.position += v.step;
+        }
+        s.readPos = read;
+    }
+
+    private static float lerp(byte[] data, int frame, int next, int channel, int channels, float frac) {
+        float a = sample(data, (frame * channels + channel) * 2);
+        float b = sample(data, (next * channels + channel) * 2);
+        return a + (b - a) * frac;
+    }
+
+    private static short sample(byte[] data, int offset) {
+        return (short) ((data[offset + 1] << 8) | (data[offset] & 0xff));
+    }
+}
@@ -1,6 +1,4 @@
 import java.awt.*;
-import java.awt.image.BufferedImage;
-import java.util.ArrayList;
 
 /**
  * A basic enemy unit with minimal AI and a solid rectangle visual.
@@ -13,12 +11,7 @@ public class BasicEnemy extends Enemy {
 	private int panelHeight;     // Height of the game panel
 
 	//Sprite stuff
-	private int frame;
-	private int spriteCol = 0;
-	private int spriteW = 75, spriteH = 75;
-	private boolean moving;
-	BufferedImage walkingSpriteSheet = ResourceLoader.loadImage("EnemyWalk.png");
-	BufferedImage idleSpriteSheet = ResourceLoader.loadImage("EnemyIdle.png");
+	private static final SpriteSheet sprites = new SpriteSheet("EnemyIdle.png", "EnemyWalk.png", 75, 75);
 
 	/**
 	 * Constructs a BasicEnemy with given parameters and sets default health and shield.
@@ -40,10 +33,10 @@ public class BasicEnemy extends Enemy {
 	}
 
 	/**
-	 * Move towards the player
+	 * Move along the entrance corridor, or towards the current target
 	 */
 	@Override
-	public void moveTowardPlayer(Player p, MapGenerator map, ArrayList<Enemy> others) {
+	public void moveTowardTarget(MapGenerator map) {
 		int moveY, moveX;
 
 		if ((this.x < 0 || this.x > 900) && (this.y < 375 || this.y > 450)) {
@@ -78,7 +71,7 @@ public class BasicEnemy extends Enemy {
 				this.directionFacing = 4;
 				setMoving(false);
 			}
-		} else if ((this.y < 0 || this.y > 900) && (this.x > 375 && this.x < 450)){
+		} else if ((this.y < 0 || this.y > 900) && (this.x >= 375 && this.x <= 450)){
 			if (this.y < 0) moveY = (int) speed;
 			else moveY = (int) -speed;
 
@@ -94,7 +87,7 @@ public class BasicEnemy extends Enemy {
 				this.directionFacing = 4;
 				setMoving(false);
 			}
-		} else if ((this.x < 0 || this.x > 900) && (this.y > 375 && this.y < 450)) {
+		} else if ((this.x < 0 || this.x > 900) && (this.y >= 375 && this.y <= 450)) {
 			if (this.x < 0) moveX = (int) speed;
 			else moveX = (int) -speed;
 
@@ -111,8 +104,8 @@ public class BasicEnemy extends Enemy {
 				setMoving(false);
 			}
 		} else {
-			double dx = p.x - this.x;
-			double dy = p.y - this.y;
+			double dx = targetX - this.x;
+			double dy = targetY - this.y;
 			double dist = Math.sqrt(dx * dx + dy * dy);
 			if (dist == 0) return;
 
@@ -133,16 +126,16 @@ public class BasicEnemy extends Enemy {
 
 				//X movement only
 				if (dx == 0) moveX = 0;
-				else if (dx < 0) moveX = (int) -speed;
-				else moveX = (int) speed;
+				else if (dx < 0) moveX = (int) -Math.min(speed, -dx);
+				else moveX = (int) Math.min(speed, dx);
 
 				this.x += moveX;
 				if (collides(map)) this.x = originalX;//collidesWithOthers(others)
 
 				//Y movement onlyAdd commentMore actions
 				if (dy == 0) moveY = 0;
-				else if (dy < 0) moveY = (int) -speed;
-				else moveY = (int) speed;
+				else if (dy < 0) moveY = (int) -Math.min(speed, -dy);
+				else moveY = (int) Math.min(speed, dy);
 
 				this.y += moveY;
 				if (collides(map)) this.y = originalY;
@@ -158,87 +151,13 @@ public class BasicEnemy extends Enemy {
 	 * @return			true or false depending on collision
 	 */
 	private boolean collides(MapGenerator map) {
-		for (Rectangle r : map.getObstacles()) {
-			if (this.intersects(r)) return true;
-		}
-		for (Rectangle wall : map.getWalls()) {
-			if (this.intersects(wall)) return true;
-		}
-		return false;
-	}
-
-	/**
-	 * Change the direction of the enemy
-	 */
-	private void changeDirection(int originalX, int originalY) {
-		//Direction
-		if (this.x > originalX) {        //Enemy is moving right
-			this.directionFacing = 2;
-		} else if (this.x < originalX) {    //Enemy is moving left
-			this.directionFacing = 1;
-		} else {                        //Enemy doesn't move left or right
-			if (this.y > originalY) this.directionFacing = 4;
-			else if (this.y < originalY) this.directionFacing = 3;
-			else {
-				this.directionFacing = 4;
-				setMoving(false);
-			}
-		}
+		return map.overlapsBlocked(this.x, this.y, this.width, this.height);
 	}
 
 	//---- Image stuff ----
 
-	/**
-	 * Set moving
-	 * @param moving		boolean value for moving
-	 */
-	public void setMoving(boolean moving) {
-		this.moving = moving;
-	}
-
-	/**
-	 * Change the frame
-	 */
-	public void changeFrame() {
-		frame = (frame + 1) % 2;
-	}
-
-	/**
-	 * Draws the BasicEnemy
-	 */
 	@Override
-	public void drawCharacter(Graphics2D g, int xOffset, int yOffset) {
-		switch (this.directionFacing) {
-			case 1:
-				spriteCol = 3;
-				break;
-			case 2:
-				spriteCol = 2;
-				break;
-			case 3:
-				spriteCol = 1;
-				break;
-			case 4:
-				spriteCol = 0;
-				break;
-		}
-
-		if (!moving) {
-			g.drawImage(
-					idleSpriteSheet,
-					this.x + xOffset, this.y + yOffset,
-					this.x + xOffset + spriteW, this.y + yOffset + spriteH,
-					spriteCol*spriteW, frame*spriteH,
-					spriteCol*spriteW+spriteW, (frame+1)*spriteH,
-					null);
-		} else {
-			g.drawImage(
-					walkingSpriteSheet,
-					this.x + xOffset, this.y + yOffset,
-					this.x + xOffset + spriteW, this.y + yOffset + spriteH,
-					spriteCol*spriteW, frame*spriteH,
-					spriteCol*spriteW+spriteW, (frame+1)*spriteH,
-					null);
-		}
+	public SpriteSheet getSpriteSheet() {
+		return sprites;
 	}
 }
\ No newline at end of file
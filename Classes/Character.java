@@ -19,6 +19,10 @@ public abstract class Character extends Rectangle {
     protected double preciseX;
     protected double preciseY;
 
+    // Position at the start of the current tick, used to interpolate rendering
+    protected int prevX;
+    protected int prevY;
+
     /**
      * Constructor to initialize all character fields.
      *
@@ -39,19 +43,28 @@ public abstract class Character extends Rectangle {
 
         this.preciseX = x;
         this.preciseY = y;
+        this.prevX = x;
+        this.prevY = y;
     }
 
     //----Image stuff----
 
     /**
-     * Abstract method for drawing the character.
-     * Must be implemented in subclasses (e.g., Player, Enemy) using appropriate sprites or shapes.
+     * Returns the animations used to draw this character.
+     * Must be implemented in subclasses (e.g., Player, Enemy), normally as a sheet shared by the type.
+     */
+    public abstract SpriteSheet getSpriteSheet();
+
+    /**
+     * Draws the character's current animation frame for its facing direction.
      *
      * @param g         Graphics2D context used for rendering
      * @param xOffset   Viewport or camera X offset
      * @param yOffset   Viewport or camera Y offset
      */
-    public abstract void drawCharacter(Graphics2D g, int xOffset, int yOffset);
+    public void drawCharacter(Graphics2D g, int xOffset, int yOffset) {
+        getSpriteSheet().draw(g, this.x + xOffset, this.y + yOffset, directionFacing, frame, moving);
+    }
 
     public void setMoving(boolean moving) {
         this.moving = moving;
@@ -61,6 +74,14 @@ public abstract class Character extends Rectangle {
         frame = (frame + 1) % 2;
     }
 
+    public boolean isMoving() {
+        return moving;
+    }
+
+    public int getAnimationFrame() {
+        return frame;
+    }
+
     /**
      * Moves the character in the specified direction if not blocked by screen bounds.
      * Direction values:
@@ -105,6 +126,22 @@ public abstract class Character extends Rectangle {
         this.preciseY = this.y;
     }
 
+    /** Remembers the current position as the start of the next tick. */
+    public void savePreviousPosition() {
+        this.prevX = this.x;
+        this.prevY = this.y;
+    }
+
+    /** @return x-coordinate at the start of the current tick */
+    public int getPrevX() {
+        return prevX;
+    }
+
+    /** @return y-coordinate at the start of the current tick */
+    public int getPrevY() {
+        return prevY;
+    }
+
     /**
      * Reduces the character’s shield first, then health if shield is depleted.
      * Any excess damage beyond the remaining shield is passed to health.
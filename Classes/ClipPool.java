@@ -0,0 +1,147 @@
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.Clip;
+import javax.sound.sampled.FloatControl;
+import javax.sound.sampled.LineUnavailableException;
+
+/**
+ * A fixed set of clips opened once with the same sample, so playing a sound
+ * effect is a rewind and a start instead of opening a new audio line. The
+ * number of clips is the voice limit: the sound can overlap itself that many
+ * times. When every voice is busy, the one that started longest ago is
+ * stopped and reused. A clip is back in the pool as soon as it stops, whether
+ * it played to the end or was stopped early. Each play gets its own handle,
+ * so stopping a play whose voice has since been reused leaves the newer
+ * sound playing.
+ */
+public class ClipPool {
+
+    /** Opens the clips of a pool; {@link AudioSystem#getClip()} outside of checks. */
+    public interface ClipSource {
+        Clip get() throws LineUnavailableException;
+    }
+
+    /** A clip started this recently counts as busy even if the line hasn't reported it active yet. */
+    private static final long START_GRACE_NANOS = 50_000_000L;
+
+    private final Clip[] clips;
+    private final long[] startedAt;
+    private final int[] plays; // Plays started on each voice; the latest one owns it
+    private int steals;
+    private boolean closed;
+
+    /**
+     * @param sample Audio every clip plays
+     * @param voices Number of clips, i.e. how many copies can play at once
+     * @param volume Volume scale between 0.0 (mute) and 1.0 (full volume)
+     * @throws LineUnavailableException if the clips can't be opened
+     */
+    public ClipPool(SampleCache.Sample sample, int voices, float volume) throws LineUnavailableException {
+        this(sample, voices, volume, AudioSystem::getClip);
+    }
+
+    /**
+     * @param source Where the clips come from
+     */
+    public ClipPool(SampleCache.Sample sample, int voices, float volume, ClipSource source)
+            throws LineUnavailableException {
+        clips = new Clip[voices];
+        startedAt = new long[voices];
+        plays = new int[voices];
+        try {
+            for (int i = 0; i < voices; i++) {
+                clips[i] = source.get();
+                clips[i].open(sample.format, sample.data, 0, sample.data.length);
+                setVolume(clips[i], volume);
+            }
+        } catch (LineUnavailableException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Plays the sample from the start on a free voice, stealing the oldest
+     * voice if none is free.
+     *
+     * @return handle of the play, for {@link #stop(long)}
+     * @throws IllegalStateException if the pool has been closed
+     */
+    public synchronized long play() {
+        if (closed) throw new IllegalStateException("Clip pool is closed");
+        long now = System.nanoTime();
+        int voice = -1;
+        for (int i = 0; i < clips.length; i++) {
+            if (!isBusy(i, now)) {
+                voice = i;
+                break;
+            }
+            if (voice < 0 || startedAt[i] < startedAt[voice]) voice = i;
+        }
+        Clip clip = clips[voice];
+        if (isBusy(voice, now)) {
+            clip.stop();
+            steals++;
+        }
+        clip.setFramePosition(0);
+        clip.start();
+        startedAt[voice] = now;
+        return ((long) ++plays[voice] << 32) | voice;
+    }
+
+    /**
+     * Stops a play. Does nothing if it already finished or its voice was
+     * taken by a newer play.
+     */
+    public synchronized void stop(long play) {
+        int voice = (int) play;
+        if (!closed && plays[voice] == (int) (play >>> 32)) {
+            clips[voice].stop();
+        }
+    }
+
+    private boolean isBusy(int voice, long now) {
+        return clips[voice].isActive() || now - startedAt[voice] < START_GRACE_NANOS;
+    }
+
+    /** @return number of voices currently playing */
+    public synchronized int getActiveVoices() {
+        long now = System.nanoTime();
+        int active = 0;
+        for (int i = 0; i < clips.length; i++) {
+            if (isBusy(i, now)) active++;
+        }
+        return active;
+    }
+
+    /** @return how many times a playing voice was cut off to start a new one */
+    public synchronized int getSteals() {
+        return steals;
+    }
+
+    /** Stops and closes every clip. The pool can't be used afterwards. */
+    public synchronized void close() {
+        closed = true;
+        for (Clip clip : clips) {
+            if (clip != null) {
+                clip.stop();
+                clip.close();
+            }
+        }
+    }
+
+    /**
+     * Adjusts the volume of the provided clip. If the clip does not support
+     * MASTER_GAIN control this method does nothing.
+     */
+    static void setVolume(Clip clip, float volume) {
+        try {
+            FloatControl control = (FloatControl) clip.getControl(FloatControl.Type.MASTER_GAIN);
+            float dB = (float) (20.0 * Math.log10(Math.max(0.0001f, volume)));
+            dB = Math.max(dB, control.getMinimum());
+            dB = Math.min(dB, control.getMaximum());
+            control.setValue(dB);
+        } catch (IllegalArgumentException ignored) {
+            // Clip doesn't support volume control
+        }
+    }
+}
@@ -8,6 +8,8 @@ import java.awt.Toolkit;
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
 import java.awt.image.BufferedImage;
+import java.util.List;
+import java.util.Locale;
 import javax.swing.JFrame;
 import javax.swing.JPanel;
 
@@ -18,6 +20,8 @@ public class DeathScreen extends JFrame implements KeyListener{
     private int score;
     private String username;
     private int retry;
+    private String standing = "";
+    private String personalBest = "";
     private BufferedImage youDied = ResourceLoader.loadImage("DeathScreen4K.png");
     private BufferedImage yes = ResourceLoader.loadImage("PlayAgainYes.png");
     private BufferedImage no = ResourceLoader.loadImage("PlayAgainNo.png");
@@ -44,6 +48,15 @@ public class DeathScreen extends JFrame implements KeyListener{
     public void setResult(String user, int newScore) {
         this.username = user;
         this.score = newScore;
+        // The score was added at game over, so the index already counts it
+        standing = String.format(Locale.ROOT, "Rank %d of %d - better than %.1f%%",
+                HighscoreManager.getRank(newScore), HighscoreManager.getEntryCount(),
+                HighscoreManager.getPercentile(newScore));
+        List<ScoreLine> best = HighscoreManager.getPlayerTopScores(user, 3);
+        StringBuilder sb = new StringBuilder("Your best:");
+        for (ScoreLine entry : best) sb.append("  ").append(entry.score);
+        personalBest = sb.toString();
+        repaint();
     }
 
     @Override
@@ -100,6 +113,9 @@ public class DeathScreen extends JFrame implements KeyListener{
             g2.setColor(Color.WHITE);
             g2.setFont(customFont.deriveFont(Font.PLAIN, 150));
             g2.drawString(username + " - " + score, 385 + xOffset, 450 + yOffset);
+            g2.setFont(customFont.deriveFont(Font.PLAIN, 50));
+            g2.drawString(standing, 385 + xOffset, 530 + yOffset);
+            g2.drawString(personalBest, 385 + xOffset, 590 + yOffset);
 
             switch (retry) {
                 case 1:
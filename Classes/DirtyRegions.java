@@ -0,0 +1,150 @@
+import java.awt.Rectangle;
+import java.util.ArrayList;
+
+/**
+ * Collects the screen areas that changed since the last frame so only those
+ * are repainted. Overlapping or nearby areas are merged as they are added,
+ * as long as that doesn't add much area, and the number of areas is capped
+ * so a busy frame degrades into a few larger repaints instead of many tiny ones.
+ * <p>
+ * World-space bounds are converted to screen space with the same scale and
+ * offsets the renderer uses, padded by a world pixel and a screen pixel to
+ * cover rounding, antialiasing and bilinear upscaling.
+ */
+public class DirtyRegions {
+
+    /** Most separate areas kept; further areas grow the one that gets least bigger. */
+    private static final int MAX_REGIONS = 8;
+    /** Areas closer than this many pixels are merged, as one repaint is cheaper than two. */
+    private static final int MERGE_DISTANCE = 16;
+
+    private final ArrayList<Rectangle> regions = new ArrayList<>();
+    private final ArrayList<Rectangle> spare = new ArrayList<>(); // Recycled rectangles
+    private boolean full;
+
+    // World to screen transform: screen = (world + offset) * scale
+    private double scale = 1;
+    private double xOffset, yOffset;
+
+    /** Forgets every area. */
+    public void clear() {
+        spare.addAll(regions);
+        regions.clear();
+        full = false;
+    }
+
+    /**
+     * Sets how world coordinates map to the screen.
+     *
+     * @param scale   Scale from world to screen pixels
+     * @param xOffset World-space x offset added before scaling
+     * @param yOffset World-space y offset added before scaling
+     */
+    public void setTransform(double scale, double xOffset, double yOffset) {
+        this.scale = scale;
+        this.xOffset = xOffset;
+        this.yOffset = yOffset;
+    }
+
+    /** Marks the whole surface as changed. */
+    public void markFull() {
+        full = true;
+    }
+
+    /** @return true if the whole surface has to be repainted */
+    public boolean isFull() {
+        return full;
+    }
+
+    /**
+     * Adds the area swept by a world-space box moving from one position to
+     * another, which covers it at every interpolated position in between.
+     */
+    public void addSwept(int fromX, int fromY, int toX, int toY, int width, int height) {
+        int minX = Math.min(fromX, toX) - 1, minY = Math.min(fromY, toY) - 1;
+        int maxX = Math.max(fromX, toX) + width + 1, maxY = Math.max(fromY, toY) + height + 1;
+        int sx = (int) Math.floor((minX + xOffset) * scale) - 1;
+        int sy = (int) Math.floor((minY + yOffset) * scale) - 1;
+        int ex = (int) Math.ceil((maxX + xOffset) * scale) + 1;
+        int ey = (int) Math.ceil((maxY + yOffset) * scale) + 1;
+        add(sx, sy, ex - sx, ey - sy);
+    }
+
+    /** Adds every area of another set. */
+    public void addAll(DirtyRegions other) {
+        if (other.full) full = true;
+        for (Rectangle r : other.regions) {
+            add(r.x, r.y, r.width, r.height);
+        }
+    }
+
+    /** Adds a screen-space area. */
+    public void add(Rectangle r) {
+        add(r.x, r.y, r.width, r.height);
+    }
+
+    /** Adds a screen-space area, merging it with any area it touches. */
+    public void add(int x, int y, int width, int height) {
+        if (full || width <= 0 || height <= 0) return;
+        Rectangle area = spare.isEmpty() ? new Rectangle() : spare.remove(spare.size() - 1);
+        area.setBounds(x, y, width, height);
+
+        // Keep absorbing neighbours until the area no longer touches any
+        boolean merged = true;
+        while (merged) {
+            merged = false;
+            for (int i = regions.size() - 1; i >= 0; i--) {
+                Rectangle r = regions.get(i);
+                if (shouldMerge(area, r)) {
+                    area.add(r);
+                    spare.add(regions.remove(i));
+                    merged = true;
+                }
+            }
+        }
+
+        if (regions.size() < MAX_REGIONS) {
+            regions.add(area);
+            return;
+        }
+
+        // Too many areas: grow the one that gets the least bigger
+        Rectangle best = regions.get(0);
+        long bestGrowth = Long.MAX_VALUE;
+        for (Rectangle r : regions) {
+            Rectangle u = r.union(area);
+            long growth = (long) u.width * u.height - (long) r.width * r.height;
+            if (growth < bestGrowth) {
+                bestGrowth = growth;
+                best = r;
+            }
+        }
+        best.add(area);
+        spare.add(area);
+    }
+
+    /**
+     * Areas are merged when they are close together and their union doesn't
+     * cover much more than the two of them, so e.g. two edges of the screen
+     * are never merged into the whole screen.
+     */
+    private static boolean shouldMerge(Rectangle a, Rectangle b) {
+        boolean near = a.x - MERGE_DISTANCE < b.x + b.width && b.x - MERGE_DISTANCE < a.x + a.width
+                && a.y - MERGE_DISTANCE < b.y + b.height && b.y - MERGE_DISTANCE < a.y + a.height;
+        if (!near) return false;
+        long unionW = Math.max(a.x + a.width, b.x + b.width) - Math.min(a.x, b.x);
+        long unionH = Math.max(a.y + a.height, b.y + b.height) - Math.min(a.y, b.y);
+        long separate = (long) a.width * a.height + (long) b.width * b.height;
+        return unionW * unionH <= separate * 3 / 2 + MERGE_DISTANCE * MERGE_DISTANCE;
+    }
+
+    /** @return number of separate areas */
+    public int size() {
+        return regions.size();
+    }
+
+    /** @return area {@code i}; valid until the next change */
+    public Rectangle get(int i) {
+        return regions.get(i);
+    }
+}
@@ -0,0 +1,100 @@
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The decoded sound effects and a {@link ClipPool} per effect, within one
+ * memory cap. Every open clip holds its own copy of the sample, so a pool's
+ * clips are charged to its sample in the {@link SampleCache}, and every play
+ * marks the sample as recently used, so the effects heard most are the last
+ * to be evicted. An evicted sample's pool is closed under the same lock that
+ * plays use, so a play never lands on a closed pool.
+ */
+public class EffectClips {
+
+    private final SampleCache samples;
+    private final int voices;
+    private final float volume;
+    private final ClipPool.ClipSource source;
+
+    // Guarded by this
+    private final HashMap<String, ClipPool> pools = new HashMap<>();
+    private final Set<String> unavailable = new HashSet<>(); // Sounds whose clips couldn't be opened
+
+    /**
+     * @param maxBytes Most bytes of sample data, clip copies included, kept at once
+     * @param voices   Clips per sound, i.e. how many copies can play at once
+     * @param volume   Volume scale between 0.0 (mute) and 1.0 (full volume)
+     */
+    public EffectClips(long maxBytes, int voices, float volume) {
+        this(maxBytes, voices, volume, AudioSystem::getClip);
+    }
+
+    /**
+     * @param source Where the clips come from
+     */
+    public EffectClips(long maxBytes, int voices, float volume, ClipPool.ClipSource source) {
+        this.samples = new SampleCache(maxBytes, this::closePool);
+        this.voices = voices;
+        this.volume = volume;
+        this.source = source;
+    }
+
+    /** @return the cache the samples are decoded into, shared with mixer mode */
+    public SampleCache getSamples() {
+        return samples;
+    }
+
+    /**
+     * Plays a sound on its pool, opening the pool on first use.
+     *
+     * @return the sound that is playing, or null if it can't be played
+     */
+    public synchronized SoundPlayer.Playback play(String filename) {
+        ClipPool pool = pool(filename);
+        if (pool == null) return null;
+        long play = pool.play();
+        return () -> pool.stop(play);
+    }
+
+    /** Decodes a sound and opens its pool ahead of time. */
+    public synchronized void preload(String filename) {
+        pool(filename);
+    }
+
+    /** @return the open pool of a sound, or null if it has none */
+    public synchronized ClipPool getPool(String filename) {
+        return pools.get(filename);
+    }
+
+    /**
+     * @return the pool for a sound, creating it on first use, or null if it
+     * can't be played. Call with the lock held.
+     */
+    private ClipPool pool(String filename) {
+        // Looked up on every play so the cache sees which sounds are in use
+        SampleCache.Sample sample = samples.get(filename);
+        if (sample == null) return null;
+        ClipPool pool = pools.get(filename);
+        if (pool != null || unavailable.contains(filename)) return pool;
+
+        try {
+            pool = new ClipPool(sample, voices, volume, source);
+        } catch (LineUnavailableException | RuntimeException e) {
+            System.err.println("Error opening audio: " + filename);
+            e.printStackTrace();
+            unavailable.add(filename);
+            return null;
+        }
+        pools.put(filename, pool);
+        samples.charge(filename, (long) voices * sample.data.length);
+        return pool;
+    }
+
+    private synchronized void closePool(String filename) {
+        ClipPool pool = pools.remove(filename);
+        if (pool != null) pool.close();
+    }
+}
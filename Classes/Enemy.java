@@ -1,5 +1,4 @@
 import java.awt.*;
-import java.util.ArrayList;
 
 /**
  * Abstract superclass representing a general enemy in the game.
@@ -12,6 +11,19 @@ public abstract class Enemy extends Character {
     protected double speed;       // Movement speed
     private int num;
 
+    // Contact damage bookkeeping
+    private int damageCooldown;           // ms until this enemy can hurt the player again
+    private long lastContactTick = -1;    // Tick on which this enemy last touched the player
+
+    // Point the enemy is currently steering towards, set by chooseTarget
+    protected int targetX, targetY;
+    // Tile the enemy was on when it last chose a target
+    private int targetCol = Integer.MIN_VALUE, targetRow = Integer.MIN_VALUE;
+    // Per-tick step towards the target, and whether the straight way there
+    // was clear when it was worked out, set by think
+    private int stepX, stepY;
+    private boolean clearPath;
+
     /**
      * Constructs an enemy with given position, size, health, and speed.
      *
@@ -34,9 +46,138 @@ public abstract class Enemy extends Character {
     }
 
     /**
-     * Move towards the Player
+     * Moves one tick along the entrance corridor, or once inside the arena
+     * towards the target last picked by {@link #chooseTarget}.
+     */
+    public abstract void moveTowardTarget(MapGenerator map);
+
+    /**
+     * Chooses a target and works out the step towards it. If nothing blocks the
+     * box swept from here to the target, {@link #advance} can then move the
+     * enemy there without checking for collisions again.
+     */
+    public void think(Player p, MapGenerator map, FlowField flow) {
+        chooseTarget(p, map, flow);
+        int dx = targetX - this.x;
+        int dy = targetY - this.y;
+        double dist = Math.sqrt((double) dx * dx + (double) dy * dy);
+        if (dist == 0) {
+            stepX = stepY = 0;
+        } else {
+            stepX = (int) ((dx / dist) * speed);
+            stepY = (int) ((dy / dist) * speed);
+        }
+        clearPath = !map.overlapsBlocked(Math.min(this.x, targetX), Math.min(this.y, targetY),
+                Math.abs(dx) + this.width, Math.abs(dy) + this.height);
+    }
+
+    /**
+     * Moves one tick. Along a clear path this is just the step worked out by
+     * {@link #think}, stopping at the target; otherwise it is
+     * {@link #moveTowardTarget}, which slides along obstacles.
+     */
+    public void advance(MapGenerator map) {
+        if (!clearPath || isEntering()) {
+            moveTowardTarget(map);
+            return;
+        }
+        int dx = targetX - this.x;
+        int dy = targetY - this.y;
+        if (dx == 0 && dy == 0) return;
+
+        int originalX = this.x;
+        int originalY = this.y;
+        this.x += Math.abs(stepX) < Math.abs(dx) ? stepX : dx;
+        this.y += Math.abs(stepY) < Math.abs(dy) ? stepY : dy;
+        setMoving(true);
+        changeDirection(originalX, originalY);
+    }
+
+    /**
+     * @return true while the enemy is still walking in from an entrance, outside
+     * the arena, where it follows the corridor and needs no target
+     */
+    public boolean isEntering() {
+        return this.x < 0 || this.x > GameWorld.WIDTH || this.y < 0 || this.y > GameWorld.HEIGHT;
+    }
+
+    /**
+     * @return true if the enemy has moved to another tile since it last chose
+     * a target, or has never chosen one
      */
-    public abstract void moveTowardPlayer(Player player, MapGenerator map, ArrayList<Enemy> others);
+    public boolean hasChangedTile(int tileSize) {
+        return Math.floorDiv(this.x + this.width / 2, tileSize) != targetCol
+                || Math.floorDiv(this.y + this.height / 2, tileSize) != targetRow;
+    }
+
+    /**
+     * Picks the point to steer towards. Until it shares a tile with the player
+     * the enemy heads for the next tile along the flow field. Lining up with
+     * whole tiles lets a tile-sized enemy slip between obstacles instead of
+     * snagging on their corners. On the player's tile, or off the field, it
+     * heads straight for the player. The result is stored in targetX/targetY.
+     */
+    public void chooseTarget(Player p, MapGenerator map, FlowField flow) {
+        int tileSize = map.getTileSize();
+        int col = Math.floorDiv(this.x + this.width / 2, tileSize);
+        int row = Math.floorDiv(this.y + this.height / 2, tileSize);
+        targetCol = col;
+        targetRow = row;
+
+        int distance = flow.getDistance(col, row);
+        if (distance == FlowField.UNREACHABLE || distance == 0) {
+            targetX = p.x;
+            targetY = p.y;
+            return;
+        }
+
+        // Aim to be centred on the next tile of the path
+        targetX = (col + flow.getDirectionX(col, row)) * tileSize + (tileSize - this.width) / 2;
+        targetY = (row + flow.getDirectionY(col, row)) * tileSize + (tileSize - this.height) / 2;
+    }
+
+    /**
+     * Faces the enemy the way it moved since the given position, or down
+     * and idle if it didn't move.
+     */
+    protected void changeDirection(int originalX, int originalY) {
+        if (this.x > originalX) {        //Enemy is moving right
+            this.directionFacing = 2;
+        } else if (this.x < originalX) {    //Enemy is moving left
+            this.directionFacing = 1;
+        } else {                        //Enemy doesn't move left or right
+            if (this.y > originalY) this.directionFacing = 4;
+            else if (this.y < originalY) this.directionFacing = 3;
+            else {
+                this.directionFacing = 4;
+                setMoving(false);
+            }
+        }
+    }
+
+    /**
+     * Records that this enemy is touching the player on the given tick and
+     * decides whether it deals damage. If contact was broken on an earlier
+     * tick the cooldown is reset, so the first touch always hurts.
+     *
+     * @param tick       Current simulation tick
+     * @param cooldownMs Time between hits while contact is kept
+     * @param deltaMs    Length of one tick in milliseconds
+     * @return true if the player should take damage this tick
+     */
+    public boolean touchPlayer(long tick, int cooldownMs, int deltaMs) {
+        if (lastContactTick != tick - 1) {
+            damageCooldown = 0;
+        }
+        lastContactTick = tick;
+
+        if (damageCooldown <= 0) {
+            damageCooldown = cooldownMs;
+            return true;
+        }
+        damageCooldown -= deltaMs;
+        return false;
+    }
 
     /**
      * Reduces the enemy's health by the damage value.
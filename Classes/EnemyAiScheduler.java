@@ -0,0 +1,112 @@
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Decides which enemies think on each tick. Thinking picks the next target
+ * along the flow field and works out the step towards it, checking the way
+ * there for obstacles. Every enemy moves every tick by the step it last
+ * worked out, which is cheap, but thinking is only done as often as the
+ * enemy's tier needs:
+ * <ul>
+ *     <li>{@link Tier#ENTERING} enemies are still walking in along an entrance
+ *     corridor and never think</li>
+ *     <li>{@link Tier#NEAR} enemies, on the player's tile or the next one along
+ *     the flow field, think every tick, so chasing the player stays exact</li>
+ *     <li>{@link Tier#MID} and {@link Tier#FAR} enemies think every
+ *     {@value #MID_PERIOD} and {@value #FAR_PERIOD} ticks</li>
+ * </ul>
+ * An enemy's turn within its period comes from its number, so a crowd is
+ * spread evenly over the ticks instead of all re-targeting on the tick the
+ * player changes tile. An enemy that has moved onto a new tile always thinks
+ * straight away, since its old target is the tile it has reached.
+ */
+public class EnemyAiScheduler {
+
+    /** Flow field distance, in tiles, up to which an enemy is near. */
+    private static final int NEAR_TILES = 1;
+    /** Flow field distance, in tiles, up to which an enemy is at mid range. */
+    private static final int MID_TILES = 4;
+    private static final int MID_PERIOD = 4;
+    private static final int FAR_PERIOD = 8;
+
+    /** Update-frequency tiers, from the cheapest. */
+    public enum Tier {
+        ENTERING, NEAR, MID, FAR
+    }
+
+    private boolean enabled;
+
+    // Metrics for the last update
+    private final int[] tierCounts = new int[Tier.values().length];
+    private int thinks;
+
+    /** Creates a scheduler with tiering on. */
+    public EnemyAiScheduler() {
+        this(true);
+    }
+
+    /**
+     * @param enabled Whether enemies are tiered; when off every enemy away from
+     *                an entrance thinks every tick
+     */
+    public EnemyAiScheduler(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Lets the enemies whose turn it is think and moves every
+     * enemy one tick. The flow field must already be up to date.
+     */
+    public void update(List<Enemy> enemies, Player player, MapGenerator map, FlowField flow, long tick) {
+        int tileSize = map.getTileSize();
+        Arrays.fill(tierCounts, 0);
+        thinks = 0;
+
+        for (Enemy e : enemies) {
+            Tier tier = tierOf(e, flow, tileSize);
+            tierCounts[tier.ordinal()]++;
+            if (tier != Tier.ENTERING && (!enabled || e.hasChangedTile(tileSize) || isTurn(e, tier, tick))) {
+                e.think(player, map, flow);
+                thinks++;
+            }
+            e.advance(map);
+        }
+    }
+
+    /** @return the tier of an enemy, by its state and its path distance to the player */
+    private static Tier tierOf(Enemy e, FlowField flow, int tileSize) {
+        if (e.isEntering()) return Tier.ENTERING;
+        int col = Math.floorDiv(e.x + e.width / 2, tileSize);
+        int row = Math.floorDiv(e.y + e.height / 2, tileSize);
+        int distance = flow.getDistance(col, row);
+        if (distance <= NEAR_TILES) return Tier.NEAR;
+        if (distance <= MID_TILES) return Tier.MID;
+        return Tier.FAR; // Includes enemies cut off from the player
+    }
+
+    private static boolean isTurn(Enemy e, Tier tier, long tick) {
+        return switch (tier) {
+            case NEAR -> true;
+            case MID -> (tick + e.getNum()) % MID_PERIOD == 0;
+            default -> (tick + e.getNum()) % FAR_PERIOD == 0;
+        };
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** @return number of enemies in a tier at the last update */
+    public int getTierCount(Tier tier) {
+        return tierCounts[tier.ordinal()];
+    }
+
+    /** @return number of enemies that thought at the last update */
+    public int getThinks() {
+        return thinks;
+    }
+}
@@ -0,0 +1,115 @@
+import java.util.Arrays;
+
+/**
+ * Breadth-first flow field over the map's tile grid, rooted at the player's
+ * tile. Every reachable tile stores the step towards its neighbour that is
+ * closest to the player, so any number of enemies can look up which way to go
+ * in constant time. The field is only rebuilt when the player moves to another
+ * tile or the map changes.
+ */
+public class FlowField {
+
+    /** Distance stored for tiles that cannot reach the player. */
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+    // 8 neighbours; orthogonal ones first so they win ties against diagonals
+    private static final int[] STEP_X = {-1, 1, 0, 0, -1, 1, -1, 1};
+    private static final int[] STEP_Y = {0, 0, -1, 1, -1, -1, 1, 1};
+
+    private MapGenerator map;
+    private int cols, rows;
+    private int targetCol = -1, targetRow = -1;
+
+    private int[] dist = new int[0];
+    private byte[] dirX = new byte[0];
+    private byte[] dirY = new byte[0];
+    private int[] queue = new int[0];
+
+    /**
+     * Points the field at the tile containing the given position, rebuilding
+     * it only if that tile or the map differs from the last call.
+     *
+     * @param map Map whose occupancy bitmap defines walkable tiles
+     * @param x   X-coordinate of the target (normally the player's centre)
+     * @param y   Y-coordinate of the target
+     */
+    public void update(MapGenerator map, int x, int y) {
+        int col = Math.floorDiv(x, map.getTileSize());
+        int row = Math.floorDiv(y, map.getTileSize());
+        if (map == this.map && col == targetCol && row == targetRow) return;
+
+        this.map = map;
+        this.targetCol = col;
+        this.targetRow = row;
+        rebuild();
+    }
+
+    private void rebuild() {
+        cols = map.getGridCols();
+        rows = map.getGridRows();
+        int cells = cols * rows;
+        if (dist.length != cells) {
+            dist = new int[cells];
+            dirX = new byte[cells];
+            dirY = new byte[cells];
+            queue = new int[cells];
+        }
+        Arrays.fill(dist, UNREACHABLE);
+        Arrays.fill(dirX, (byte) 0);
+        Arrays.fill(dirY, (byte) 0);
+
+        if (!inBounds(targetCol, targetRow)) return;
+
+        int head = 0, tail = 0;
+        int start = targetRow * cols + targetCol;
+        dist[start] = 0;
+        queue[tail++] = start;
+
+        while (head < tail) {
+            int cell = queue[head++];
+            int c = cell % cols, r = cell / cols;
+            for (int k = 0; k < STEP_X.length; k++) {
+                int nc = c + STEP_X[k], nr = r + STEP_Y[k];
+                if (!isWalkable(nc, nr)) continue;
+                // Diagonal moves must not cut the corner of a blocked tile
+                if (STEP_X[k] != 0 && STEP_Y[k] != 0
+                        && (!isWalkable(nc, r) || !isWalkable(c, nr))) continue;
+
+                int next = nr * cols + nc;
+                if (dist[next] != UNREACHABLE) continue;
+                dist[next] = dist[cell] + 1;
+                // Walking from the neighbour back to this tile leads to the player
+                dirX[next] = (byte) -STEP_X[k];
+                dirY[next] = (byte) -STEP_Y[k];
+                queue[tail++] = next;
+            }
+        }
+    }
+
+    private boolean inBounds(int col, int row) {
+        return col >= 0 && row >= 0 && col < cols && row < rows;
+    }
+
+    private boolean isWalkable(int col, int row) {
+        return inBounds(col, row) && !map.isBlocked(col, row);
+    }
+
+    /**
+     * @return number of tile steps from the tile to the player, or
+     *         {@link #UNREACHABLE} if there is no path or the tile is off the map
+     */
+    public int getDistance(int col, int row) {
+        if (!inBounds(col, row)) return UNREACHABLE;
+        return dist[row * cols + col];
+    }
+
+    /** @return column step (-1, 0 or 1) towards the player from the tile */
+    public int getDirectionX(int col, int row) {
+        return inBounds(col, row) ? dirX[row * cols + col] : 0;
+    }
+
+    /** @return row step (-1, 0 or 1) towards the player from the tile */
+    public int getDirectionY(int col, int row) {
+        return inBounds(col, row) ? dirY[row * cols + col] : 0;
+    }
+}
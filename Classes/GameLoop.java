@@ -0,0 +1,127 @@
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Fixed-timestep game loop running on its own simulation thread. The thread
+ * measures real elapsed time and runs as many fixed logic steps as have
+ * accumulated, capped so a long stall cannot snowball into ever larger
+ * catch-up bursts. After the steps of each frame it calls the frame callback
+ * with the fraction of a step left over, which is where the game publishes
+ * what should be drawn.
+ * <p>
+ * Both callbacks run on the simulation thread, never on the Swing event
+ * thread, so a slow paint does not delay the next step. They must not touch
+ * Swing components directly.
+ */
+public class GameLoop {
+
+    /** Most logic steps run in one frame before the backlog is dropped. */
+    private static final int MAX_STEPS_PER_FRAME = 5;
+
+    private final long stepNanos;
+    private final long frameNanos;
+    private final Runnable update;
+    private final DoubleConsumer frame;
+
+    // The thread currently driving the loop, or null when stopped
+    private volatile Thread thread;
+    // The last thread that was stopped, which may still be finishing its step
+    private Thread stopped;
+
+    /**
+     * @param stepMs    Length of one logic step in milliseconds
+     * @param targetFps Frames published per second, or 0 for as fast as possible
+     * @param update    Called once per logic step
+     * @param frame     Called once per frame with the interpolation factor (0 to 1)
+     */
+    public GameLoop(int stepMs, int targetFps, Runnable update, DoubleConsumer frame) {
+        this.stepNanos = stepMs * 1_000_000L;
+        this.frameNanos = targetFps > 0 ? 1_000_000_000L / targetFps : 0;
+        this.update = update;
+        this.frame = frame;
+    }
+
+    /** Starts the loop if it is not already running. */
+    public synchronized void start() {
+        if (thread != null) return;
+        // Let a loop that stopped itself finish, so its writes are visible to the new thread
+        if (stopped != null) {
+            join(stopped);
+            stopped = null;
+        }
+        thread = new Thread(this::run, "simulation");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops the loop. May be called from inside a callback. When called from
+     * any other thread it waits for the current step to finish, so the caller
+     * can safely read and change the game state once it returns.
+     */
+    public void stop() {
+        Thread t;
+        synchronized (this) {
+            t = thread;
+            if (t == null) return;
+            thread = null;
+            stopped = t;
+        }
+        // Wait outside the lock: the step being finished may itself call stop()
+        if (t != Thread.currentThread()) {
+            LockSupport.unpark(t); // Don't wait out the frame delay
+            join(t);
+        }
+    }
+
+    public boolean isRunning() {
+        return thread != null;
+    }
+
+    private static void join(Thread t) {
+        boolean interrupted = false;
+        while (t.isAlive()) {
+            try {
+                t.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    private void run() {
+        Thread self = Thread.currentThread();
+        long previous = System.nanoTime();
+        long accumulator = 0;
+
+        while (thread == self) {
+            long frameStart = System.nanoTime();
+            accumulator += frameStart - previous;
+            previous = frameStart;
+
+            int steps = 0;
+            while (accumulator >= stepNanos && steps < MAX_STEPS_PER_FRAME) {
+                accumulator -= stepNanos;
+                steps++;
+            }
+            // Too far behind (e.g. after a stall): slow down instead of spiralling
+            if (accumulator >= stepNanos) {
+                accumulator %= stepNanos;
+            }
+
+            try {
+                for (int i = 0; i < steps && thread == self; i++) {
+                    update.run();
+                }
+                if (thread == self) frame.accept(accumulator / (double) stepNanos);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+
+            // Wait for the next frame, or at least give up the CPU briefly
+            long wait = frameNanos - (System.nanoTime() - frameStart);
+            LockSupport.parkNanos(Math.max(wait, 100_000L));
+        }
+    }
+}
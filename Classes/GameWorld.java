@@ -0,0 +1,500 @@
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Owns the full game state and rules: the player, map, enemies, bullets,
+ * pickups, waves and score. The world only advances when {@link #step(InputFrame)}
+ * is called, so it can be driven by the {@link GameLoop} in {@link Main} or stepped
+ * as fast as possible without a display for batch simulation.
+ */
+public class GameWorld {
+
+    // Constants
+    public static final int WIDTH = 900;
+    public static final int HEIGHT = 900;
+    /** Length of one simulation step in milliseconds. */
+    public static final int TICK_MS = 10;
+    private static final int DAMAGE_COOLDOWN_MS = 300; // Time between hits from one enemy
+    private static final int ANIMATION_FRAME_MS = 80;  // Time each sprite frame is shown
+
+    // Enemies waves
+    private final HashMap<Integer, Integer> entranceSpawnCounts = new HashMap<>();
+    private int wave;
+    private int enemiesToSpawn;
+    private int enemiesSpawnedThisWave;
+    private boolean waveInProgress;
+    private int animationTimer;
+
+    // State fields
+    private final ArrayList<Enemy> enemies = new ArrayList<>();
+    private final ProjectileSystem projectiles = new ProjectileSystem(WIDTH, HEIGHT);
+    private final ArrayList<PowerUpItem> powerUpItems = new ArrayList<>();
+    private final ArrayList<HealItem> healItems = new ArrayList<>();
+
+    // Broadphase grids keyed on the map tile size
+    private final SpatialGrid<Enemy> enemyGrid;
+    private final SpatialGrid<PowerUpItem> powerUpGrid;
+    private final SpatialGrid<HealItem> healGrid;
+    private final ArrayList<Enemy> nearbyEnemies = new ArrayList<>();
+    private final ArrayList<PowerUpItem> nearbyPowerUps = new ArrayList<>();
+    private final ArrayList<HealItem> nearbyHeals = new ArrayList<>();
+
+    // Shared path towards the player for every enemy
+    private final FlowField flowField = new FlowField();
+    // Decides how often each enemy re-targets; -Dgame.aiLod=false re-targets all every tick
+    private final EnemyAiScheduler aiScheduler =
+            new EnemyAiScheduler(!"false".equals(System.getProperty("game.aiLod")));
+
+    // Game objects
+    private final Player player;
+    private MapGenerator map;
+    private final Random rand;
+    private int score;
+    private long tick;
+
+    // Per-phase timings of step(); off unless a profiler is attached
+    private TickProfiler profiler = new TickProfiler(false);
+
+    //enemy identifier
+    private int enemyNums;
+
+    // Pickup icons
+    private final BufferedImage shotgunIcon = ResourceLoader.loadImage("ShotgunIcon.png");
+    private final BufferedImage speedIcon = ResourceLoader.loadImage("SpeedBoostIcon.png");
+    private final BufferedImage bandageIcon = ResourceLoader.loadImage("MedKit.png");
+    private final BufferedImage shieldIcon = ResourceLoader.loadImage("FullShield.png");
+
+    /** Creates a world with a randomly seeded map and pickups. */
+    public GameWorld() {
+        this(new Random());
+    }
+
+    /**
+     * Creates a world whose map layouts and pickup placement come from the given
+     * random source, so a seeded world replays identically for the same inputs.
+     */
+    public GameWorld(Random rand) {
+        this.rand = rand;
+        player = new Player((WIDTH - 70) / 2, (HEIGHT - 70) / 2, 70, 70, 5, WIDTH, HEIGHT);
+        map = new MapGenerator(10, 10, 75, 1, rand); // Creates 10x10 grid of 75px tiles
+
+        int cell = map.getTileSize();
+        enemyGrid = new SpatialGrid<>(WIDTH, HEIGHT, cell);
+        powerUpGrid = new SpatialGrid<>(WIDTH, HEIGHT, cell);
+        healGrid = new SpatialGrid<>(WIDTH, HEIGHT, cell);
+
+        wave = 1;
+        enemiesToSpawn = 2;
+        enemiesSpawnedThisWave = 0;
+        waveInProgress = false;
+        enemyNums = 0;
+    }
+
+    /**
+     * Starts the pending wave and moves the player back to the centre.
+     * Does nothing if a wave is already in progress.
+     */
+    public void startWave() {
+        if (waveInProgress) return;
+        waveInProgress = true;
+        // Ensure no stray bullets from the previous wave carry
+        // over when the new wave begins
+        projectiles.clear();
+        player.x = (WIDTH - 70) / 2;
+        player.y = (HEIGHT - 70) / 2;
+        player.syncPosition();
+        // Don't interpolate the jump back to the centre
+        player.savePreviousPosition();
+    }
+
+    /**
+     * Advances the simulation by one tick using the given input.
+     * Once the player is dead the world no longer changes.
+     */
+    public void step(InputFrame input) {
+        if (isGameOver()) return;
+        tick++;
+        long t = profiler.start();
+
+        if (input.startWave) {
+            startWave();
+        }
+
+        // Remember where everything was so rendering can interpolate
+        player.savePreviousPosition();
+        for (Enemy en : enemies) {
+            en.savePreviousPosition();
+        }
+        projectiles.savePreviousPositions();
+
+        applyActions(input);
+
+        //Set moving for animation
+        player.setMoving(input.isMoving());
+
+        //Set frame for animation
+        animationTimer += TICK_MS;
+        if (animationTimer >= ANIMATION_FRAME_MS) {
+            player.changeFrame();
+
+            for (Enemy en : enemies) {
+                en.changeFrame();
+            }
+
+            animationTimer = 0;
+        }
+
+        rebuildEnemyGrid();
+        t = profiler.record(TickProfiler.Phase.PREPARE, t);
+        dealDamage();
+        t = profiler.record(TickProfiler.Phase.DAMAGE, t);
+        aliveDead();
+        t = profiler.record(TickProfiler.Phase.CLEANUP, t);
+        checkPowerUpPickup();
+        checkHealPickup();
+        t = profiler.record(TickProfiler.Phase.PICKUPS, t);
+        player.updatePowerUps(TICK_MS);
+        // Fade out damage visual effect
+        player.tickDamageEffect(TICK_MS);
+        t = profiler.record(TickProfiler.Phase.POWER_UPS, t);
+
+        spawnEnemies();
+        t = profiler.record(TickProfiler.Phase.SPAWNING, t);
+
+        handleSmoothMovement(input);
+        t = profiler.record(TickProfiler.Phase.PLAYER_MOVE, t);
+        move();
+        t = profiler.record(TickProfiler.Phase.MOVE, t);
+        moveEnemies();
+        profiler.record(TickProfiler.Phase.ENEMY_AI, t);
+    }
+
+    /**
+     * Attaches a profiler that times each phase of {@link #step(InputFrame)}.
+     */
+    public void setProfiler(TickProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    public TickProfiler getProfiler() {
+        return profiler;
+    }
+
+    public EnemyAiScheduler getAiScheduler() {
+        return aiScheduler;
+    }
+
+    /**
+     * Applies the one-shot actions from this tick's input.
+     */
+    private void applyActions(InputFrame input) {
+        if (input.fire) {
+            player.shoot(projectiles);
+        }
+        if (input.useSpeedBoost) {
+            player.usePowerUp(SpeedBoost.class);
+        }
+        if (input.useShotgun) {
+            player.usePowerUp(Shotgun.class);
+        }
+        if (input.useBandage) {
+            player.useHeal(Bandage.class);
+        }
+        if (input.useShieldPotion) {
+            player.useHeal(ShieldPotion.class);
+        }
+    }
+
+    /**
+     * Spawns the next enemy of the current wave and rolls over to the next wave
+     * once every enemy has been spawned and defeated.
+     */
+    private void spawnEnemies() {
+        // Spawn enemies for current wave
+        if (waveInProgress && enemiesSpawnedThisWave < enemiesToSpawn) {
+            int entranceIndex = enemyNums % 4;
+            int enemySize = 75;
+
+            // Track how many enemies have spawned at this entrance so far
+            int count = entranceSpawnCounts.getOrDefault(entranceIndex, 0);
+
+            // Get the base spawn location for the entrance
+            Rectangle baseSpawn = map.getClearSpawnPoint(entranceIndex, enemySize);
+
+            // Offset spacing per enemy so they don't stack
+            int spacing = 80;
+            int spawnX = baseSpawn.x;
+            int spawnY = baseSpawn.y;
+
+            // Adjust position depending on entrance orientation
+            switch (entranceIndex) {
+                case 0, 1 -> spawnX += count * spacing; // top or bottom = offset X
+                case 2, 3 -> spawnY += count * spacing; // left or right = offset Y
+            }
+
+            // Update the count in the map
+            entranceSpawnCounts.put(entranceIndex, count + 1);
+
+            // Create the enemy
+            if (wave % 5 == 0) {
+                enemies.add(new BossEnemy(spawnX, spawnY, enemySize, enemySize, enemyNums, wave));
+            } else {
+                enemies.add(new BasicEnemy(spawnX, spawnY, enemySize, enemySize, 2.5, enemyNums, WIDTH, HEIGHT));
+            }
+            enemyNums++;
+            enemiesSpawnedThisWave++;
+        }
+
+        // End the wave setup when done
+        if (enemiesSpawnedThisWave == enemiesToSpawn && enemies.size() == 0) {
+            if (wave % 5 == 0) {
+                waveInProgress = false;
+            }
+
+            wave++;
+            // Remove any bullets still on screen so they do not
+            // persist into the next wave
+            projectiles.clear();
+            map.updateLevel(wave);
+
+            if (wave % 5 == 0) {
+                enemiesToSpawn = (wave / 5);
+            } else {
+                enemiesToSpawn = wave + 1;
+            }
+            enemiesSpawnedThisWave = 0;
+            entranceSpawnCounts.clear();
+
+            if (wave % 5 == 1) {
+                map = new MapGenerator(10, 10, 75, (wave / 5) + 1, rand);
+            }
+
+            if (wave >= 3 && wave % 3 == 0) {
+                spawnPowerUps();
+                spawnHeals();
+            }
+        }
+    }
+
+    /** Re-inserts every enemy at its current position. */
+    private void rebuildEnemyGrid() {
+        enemyGrid.clear();
+        enemyGrid.insertAll(enemies);
+    }
+
+    /** Refills the pickup grids after items are spawned or collected. */
+    private void rebuildPickupGrids() {
+        powerUpGrid.clear();
+        powerUpGrid.insertAll(powerUpItems);
+        healGrid.clear();
+        healGrid.insertAll(healItems);
+    }
+
+    /**
+     * Handles all movement logic for the bullets.
+     */
+    private void move() {
+        // Enemies may have spawned or died since the start of the tick
+        rebuildEnemyGrid();
+
+        // Update bullets
+        projectiles.update(map, enemyGrid);
+    }
+
+    /**
+     * Moves every enemy towards the player, re-targeting them as often as
+     * their distance needs.
+     */
+    private void moveEnemies() {
+        // Only rebuilt when the player changes tile or the map changes
+        flowField.update(map, player.x + player.width / 2, player.y + player.height / 2);
+        aiScheduler.update(enemies, player, map, flowField, tick);
+    }
+
+    /**
+     * Handles player movement using smooth multi-key input.
+     */
+    private void handleSmoothMovement(InputFrame input) {
+        double dx = 0;
+        double dy = 0;
+
+        if (input.up) dy -= 1;
+        if (input.down) dy += 1;
+        if (input.left) dx -= 1;
+        if (input.right) dx += 1;
+
+        if (dx != 0 || dy != 0) {
+            double len = Math.sqrt(dx * dx + dy * dy);
+            dx = dx / len * player.getSpeed();
+            dy = dy / len * player.getSpeed();
+
+            // Determine facing direction based on movement vector
+            if (Math.abs(dx) > Math.abs(dy)) {
+                player.directionFacing = dx > 0 ? 2 : 1;
+            } else {
+                player.directionFacing = dy > 0 ? 4 : 3;
+            }
+
+            player.moveVector(dx, dy, WIDTH, HEIGHT);
+        }
+
+        // Prevent player from moving through obstacles
+        map.blockPlayer(player, player.getDirectionFacing());
+        player.syncPosition();
+    }
+
+    /**
+     * Handles cleanup of offscreen/dead objects.
+     */
+    private void aliveDead() {
+        // Remove off-screen bullets
+        projectiles.removeOffscreen();
+
+        // Remove dead enemies and update score
+        for (int i = enemies.size() - 1; i >= 0; i--) {
+            if (!enemies.get(i).isAlive()) {
+                enemies.remove(i);
+                score += 10;
+            }
+        }
+    }
+
+    /**
+     * Check if player collects any power-up items
+     */
+    private void checkPowerUpPickup() {
+        nearbyPowerUps.clear();
+        if (powerUpGrid.query(player, nearbyPowerUps) == 0) return;
+        for (PowerUpItem item : nearbyPowerUps) {
+            player.addPowerUp(item.getPowerUp(), item.getImage());
+            powerUpItems.remove(item);
+        }
+        rebuildPickupGrids();
+    }
+
+    private void checkHealPickup() {
+        nearbyHeals.clear();
+        if (healGrid.query(player, nearbyHeals) == 0) return;
+        for (HealItem item : nearbyHeals) {
+            player.addHeal(item.getHeal(), item.getImage());
+            healItems.remove(item);
+        }
+        rebuildPickupGrids();
+    }
+
+    /**
+     * Spawn power-ups on random walkable tiles
+     */
+    private void spawnPowerUps() {
+        powerUpItems.clear();
+        List<Rectangle> tiles = map.getWalkableTiles();
+
+        if (tiles.isEmpty()) {
+            return;
+        }
+
+        int size = map.getTileSize() / 2;
+
+        Rectangle tile1 = tiles.get(rand.nextInt(tiles.size()));
+        Rectangle tile2 = tiles.get(rand.nextInt(tiles.size()));
+
+        int x1 = tile1.x + (tile1.width - size) / 2;
+        int y1 = tile1.y + (tile1.height - size) / 2;
+        int x2 = tile2.x + (tile2.width - size) / 2;
+        int y2 = tile2.y + (tile2.height - size) / 2;
+
+        int duration = 10000; // 10 seconds
+        powerUpItems.add(new PowerUpItem(x1, y1, size, new Shotgun(duration), shotgunIcon, java.awt.Color.BLUE));
+        powerUpItems.add(new PowerUpItem(x2, y2, size, new SpeedBoost(duration, 3), speedIcon, java.awt.Color.YELLOW));
+        rebuildPickupGrids();
+    }
+
+    private void spawnHeals() {
+        healItems.clear();
+        List<Rectangle> tiles = map.getWalkableTiles();
+
+        if (tiles.isEmpty()) {
+            return;
+        }
+
+        int size = map.getTileSize() / 2;
+
+        Rectangle tile1 = tiles.get(rand.nextInt(tiles.size()));
+        Rectangle tile2 = tiles.get(rand.nextInt(tiles.size()));
+
+        int x1 = tile1.x + (tile1.width - size) / 2;
+        int y1 = tile1.y + (tile1.height - size) / 2;
+        int x2 = tile2.x + (tile2.width - size) / 2;
+        int y2 = tile2.y + (tile2.height - size) / 2;
+
+        healItems.add(new HealItem(x1, y1, size, new Bandage(), bandageIcon, java.awt.Color.WHITE));
+        healItems.add(new HealItem(x2, y2, size, new ShieldPotion(), shieldIcon, java.awt.Color.WHITE));
+        rebuildPickupGrids();
+    }
+
+    private void dealDamage() {
+        /*
+         * Only enemies overlapping the player can hurt them. Each enemy tracks its own
+         * cooldown (ms) while it stays in contact and resets it once contact is broken.
+         */
+        nearbyEnemies.clear();
+        enemyGrid.query(player, nearbyEnemies);
+        for (Enemy enemy : nearbyEnemies) {
+            if (enemy.touchPlayer(tick, DAMAGE_COOLDOWN_MS, TICK_MS)) {
+                player.updateHealth(1);
+            }
+        }
+    }
+
+    // ----- Getters used by renderers and tests -----
+
+    /** @return true once the player has died */
+    public boolean isGameOver() {
+        return !player.isAlive();
+    }
+
+    public Player getPlayer() {
+        return player;
+    }
+
+    public MapGenerator getMap() {
+        return map;
+    }
+
+    public List<Enemy> getEnemies() {
+        return enemies;
+    }
+
+    public ProjectileSystem getProjectiles() {
+        return projectiles;
+    }
+
+    public List<PowerUpItem> getPowerUpItems() {
+        return powerUpItems;
+    }
+
+    public List<HealItem> getHealItems() {
+        return healItems;
+    }
+
+    public int getWave() {
+        return wave;
+    }
+
+    public boolean isWaveInProgress() {
+        return waveInProgress;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    /** @return number of ticks simulated so far */
+    public long getTick() {
+        return tick;
+    }
+}
@@ -1,32 +1,349 @@
 import java.io.*;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.LinkedBlockingQueue;
 
 /**
- * Utility class for persisting and sorting high scores.
+ * Keeps every score ever recorded. Scores are stored in a binary
+ * {@link ScoreStore} file and ordered by a {@link ScoreIndex} built when the
+ * scores are first used, so the rank of a score, its percentile, any page
+ * of the leaderboard and a player's best scores are all answered from
+ * memory in logarithmic time, and saving a score never blocks the caller.
+ * <p>
+ * New scores go into the index at once under a temporary number and are
+ * handed to a background writer that appends them to the store in batches.
+ * Records are only ever appended, and the store counts a record only once
+ * it is fully written, so there is nothing to compact and a crash can at
+ * most lose the scores not yet written.
+ * <p>
+ * Several game processes can share the file: the store serializes appends
+ * with a file lock, and every query first picks up records other processes
+ * have appended, without locking. A written score swaps its temporary
+ * number for its record number as part of that catch-up.
+ * <p>
+ * Scores from the old {@code highscores.txt} text file are imported the
+ * first time the store is created. The text file itself is left as it is.
+ * <p>
+ * In client mode, chosen with {@code -Dgame.leaderboardUrl=<url>}, every
+ * score is also sent to a {@link LeaderboardServer} by a
+ * {@link LeaderboardClient}, which batches and retries in the background.
  */
 public class HighscoreManager {
 
-    private static final String FILE_NAME = "highscores.txt";
+    private static final String FILE_NAME = "highscores.dat";
+    private static final String TEXT_FILE_NAME = "highscores.txt";
+    private static final int MAX_SCORES = 20;
 
-    /** Append a score entry to the high score file and resort. */
+    /** A score waiting to be written, indexed under a temporary number. */
+    private static class Pending {
+        final ScoreLine entry;
+        final int id;
+
+        Pending(ScoreLine entry, int id) {
+            this.entry = entry;
+            this.id = id;
+        }
+    }
+
+    // Guarded by the class lock. All null until loaded
+    private static ScoreStore store; // Stays null if the file can't be used
+    private static ScoreIndex index;
+    private static Map<String, ScoreIndex> players; // By lowercase name
+    private static int indexed; // Store records in the indexes
+    // Set while this process's writer appends. Its records must not be
+    // caught up before their temporary numbers are swapped out
+    private static boolean appending;
+    // Scores not written to the store yet, by temporary number. Temporary
+    // numbers are negative, so they never clash with record numbers and
+    // sort after records with the same score
+    private static Map<Integer, ScoreLine> unwritten;
+    private static int nextPendingId = Integer.MIN_VALUE;
+
+    // Write-behind state
+    private static final LinkedBlockingQueue<Pending> pending = new LinkedBlockingQueue<>();
+    private static final Object writeLock = new Object();
+    private static long queued, written; // Guarded by writeLock
+    private static Thread writer;
+
+    // Also sends every score to a leaderboard server when one is configured
+    private static final LeaderboardClient client = LeaderboardClient.fromProperty();
+    /** How long exiting waits for scores to reach the leaderboard server. */
+    private static final long CLIENT_FLUSH_MS = 2000;
+
+    static {
+        // Don't lose scores still waiting to be written when the game exits
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            flush();
+            if (client != null) client.flush(CLIENT_FLUSH_MS);
+        }));
+    }
+
+    /**
+     * Records a score. The in-memory index is updated at once; the file is
+     * updated in the background.
+     */
     public static void addScore(String username, int score) {
-        File file = new File(FILE_NAME);
-        try (PrintWriter pw = new PrintWriter(new FileWriter(file, true))) {
-            pw.println(username + " - " + score);
+        ScoreLine entry = new ScoreLine(username, score);
+        Pending p;
+        synchronized (HighscoreManager.class) {
+            load();
+            p = new Pending(entry, nextPendingId++);
+            unwritten.put(p.id, entry);
+            addToIndex(entry, p.id);
+        }
+        synchronized (writeLock) {
+            queued++;
+            if (writer == null) {
+                writer = new Thread(HighscoreManager::writeLoop, "highscore-writer");
+                writer.setDaemon(true);
+                writer.start();
+            }
+        }
+        pending.add(p);
+        if (client != null) client.submit(entry);
+    }
+
+    /**
+     * Loads the scores on a background thread, so the first query doesn't
+     * have to wait for the index to be built.
+     */
+    public static void preload() {
+        Thread t = new Thread(() -> {
+            synchronized (HighscoreManager.class) {
+                load();
+            }
+        }, "highscore-loader");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    /**
+     * @return the top scores, highest first, as an unmodifiable list
+     */
+    public static List<ScoreLine> getTopScores() {
+        return getScores(0, MAX_SCORES);
+    }
+
+    /**
+     * @param from  Position of the first score, 0 for the best
+     * @param count Most scores to return
+     * @return the scores at those positions, highest first, as an unmodifiable list
+     */
+    public static synchronized List<ScoreLine> getScores(int from, int count) {
+        current();
+        int[] records = new int[Math.max(0, Math.min(count, index.size() - from))];
+        int n = index.page(from, records);
+        List<ScoreLine> entries = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) entries.add(entry(records[i]));
+        return Collections.unmodifiableList(entries);
+    }
+
+    /** @return the number of scores recorded */
+    public static synchronized int getEntryCount() {
+        current();
+        return index.size();
+    }
+
+    /**
+     * @return the rank of a score among all recorded scores, 1 for the best;
+     * equal scores share a rank
+     */
+    public static synchronized int getRank(int score) {
+        current();
+        return index.rank(score);
+    }
+
+    /** @return the percentage of recorded scores lower than this one */
+    public static synchronized double getPercentile(int score) {
+        current();
+        return index.percentile(score);
+    }
+
+    /**
+     * @return a player's best scores, highest first, as an unmodifiable list;
+     * names are matched ignoring case
+     */
+    public static synchronized List<ScoreLine> getPlayerTopScores(String username, int count) {
+        current();
+        ScoreIndex player = players.get(playerKey(username));
+        if (player == null) return List.of();
+        int[] records = new int[Math.min(count, player.size())];
+        int n = player.page(0, records);
+        List<ScoreLine> entries = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) entries.add(entry(records[i]));
+        return Collections.unmodifiableList(entries);
+    }
+
+    /** Waits until every score added so far has been written to the file. */
+    public static void flush() {
+        synchronized (writeLock) {
+            long target = queued;
+            boolean interrupted = false;
+            while (written < target && writer != null && writer.isAlive()) {
+                try {
+                    writeLock.wait(100);
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Opens the store and builds the indexes on first use. Call with the class lock held. */
+    private static void load() {
+        if (index != null) return;
+        store = openStore();
+        unwritten = new HashMap<>();
+        players = new HashMap<>();
+        int size = store == null ? 0 : store.size();
+        long[] keys = new long[size];
+        for (int record = 0; record < size; record++) {
+            int score = store.getScore(record);
+            keys[record] = ScoreIndex.key(score, record);
+            players.computeIfAbsent(playerKey(store.getName(record)), k -> new ScoreIndex()).add(score, record);
+        }
+        index = new ScoreIndex(keys, size);
+        indexed = size;
+    }
+
+    /**
+     * Loads the indexes if needed and adds any records appended since they
+     * were last brought up to date, by this process or another. Call with the
+     * class lock held.
+     */
+    private static void current() {
+        load();
+        if (store == null || appending) return;
+        int size = store.refresh();
+        for (int record = indexed; record < size; record++) {
+            addToIndex(new ScoreLine(store.getName(record), store.getScore(record)), record);
+        }
+        indexed = size;
+    }
+
+    private static void addToIndex(ScoreLine entry, int record) {
+        index.add(entry.score, record);
+        players.computeIfAbsent(playerKey(entry.username), k -> new ScoreIndex()).add(entry.score, record);
+    }
+
+    /**
+     * Takes written scores out of the indexes under their temporary numbers,
+     * in one pass over each index. Call with the class lock held.
+     */
+    private static void removeWritten(List<Pending> batch) {
+        long[] keys = new long[batch.size()];
+        Map<String, List<Pending>> byPlayer = new HashMap<>();
+        for (int i = 0; i < keys.length; i++) {
+            Pending p = batch.get(i);
+            unwritten.remove(p.id);
+            keys[i] = ScoreIndex.key(p.entry.score, p.id);
+            byPlayer.computeIfAbsent(playerKey(p.entry.username), k -> new ArrayList<>()).add(p);
+        }
+        index.removeAll(keys, keys.length);
+        for (Map.Entry<String, List<Pending>> e : byPlayer.entrySet()) {
+            List<Pending> scores = e.getValue();
+            long[] playerKeys = new long[scores.size()];
+            for (int i = 0; i < playerKeys.length; i++) {
+                playerKeys[i] = ScoreIndex.key(scores.get(i).entry.score, scores.get(i).id);
+            }
+            players.get(e.getKey()).removeAll(playerKeys, playerKeys.length);
+        }
+    }
+
+    /** @return the score with this record or temporary number. Call with the class lock held. */
+    private static ScoreLine entry(int record) {
+        if (record < 0) return unwritten.get(record);
+        return new ScoreLine(store.getName(record), store.getScore(record));
+    }
+
+    private static String playerKey(String username) {
+        return username.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Opens the score store, filling it from the text file while it is empty.
+     *
+     * @return the store, or null if it can't be opened, in which case scores
+     * are only kept in memory
+     */
+    private static ScoreStore openStore() {
+        Path path = Paths.get(FILE_NAME);
+        try {
+            ScoreStore s = new ScoreStore(path);
+            if (s.size() == 0) importText(new File(TEXT_FILE_NAME), s);
+            return s;
         } catch (IOException e) {
             e.printStackTrace();
+            return null;
         }
-        sortScores();
     }
 
     /**
-     * Sorts the high score file from highest to lowest score and trims
-     * the list to the top 20 entries.
+     * Appends the scores from a text file to an empty store in one step. An
+     * import interrupted before it was counted leaves the store empty, so it
+     * is redone next time, and two processes starting at once don't both
+     * import.
      */
-    public static void sortScores() {
-        File file = new File(FILE_NAME);
-        if (!file.exists()) return;
+    static void importText(File text, ScoreStore target) throws IOException {
+        List<String> lines = readLines(text);
+        if (lines.isEmpty()) return;
+        List<ScoreStore.Record> records = new ArrayList<>(lines.size());
+        for (String line : lines) {
+            ScoreLine entry = ScoreLine.parse(line);
+            records.add(new ScoreStore.Record(entry.username, entry.score, 0));
+        }
+        target.appendIfEmpty(records);
+    }
+
+    private static void writeLoop() {
+        List<Pending> batch = new ArrayList<>();
+        List<ScoreStore.Record> records = new ArrayList<>();
+        while (true) {
+            try {
+                batch.add(pending.take());
+            } catch (InterruptedException e) {
+                continue; // Daemon thread; only stops with the JVM
+            }
+            pending.drainTo(batch);
+            ScoreStore s;
+            synchronized (HighscoreManager.class) {
+                s = store;
+                appending = true;
+            }
+            boolean stored = false;
+            if (s != null) {
+                long now = System.currentTimeMillis();
+                for (Pending p : batch) records.add(new ScoreStore.Record(p.entry.username, p.entry.score, now));
+                try {
+                    s.append(records);
+                    s.force();
+                    stored = true;
+                } catch (IOException e) {
+                    e.printStackTrace(); // The batch stays in memory only
+                }
+                records.clear();
+            }
+            synchronized (HighscoreManager.class) {
+                appending = false;
+                if (stored) {
+                    // Swap the temporary numbers for the records, which the catch-up indexes
+                    removeWritten(batch);
+                    current();
+                }
+            }
+            synchronized (writeLock) {
+                written += batch.size();
+                writeLock.notifyAll();
+            }
+            batch.clear();
+        }
+    }
+
+    private static List<String> readLines(File file) {
         List<String> lines = new ArrayList<>();
+        if (!file.exists()) return lines;
         try (BufferedReader br = new BufferedReader(new FileReader(file))) {
             String line;
             while ((line = br.readLine()) != null) {
@@ -35,29 +352,6 @@ public class HighscoreManager {
         } catch (IOException e) {
             e.printStackTrace();
         }
-        lines.sort((a, b) -> {
-            int sa = parseScore(a);
-            int sb = parseScore(b);
-            return Integer.compare(sb, sa); // descending
-        });
-        // Keep only the top 20 scores after sorting
-        int limit = Math.min(20, lines.size());
-        try (PrintWriter pw = new PrintWriter(file)) {
-            for (int i = 0; i < limit; i++) {
-                pw.println(lines.get(i));
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-    }
-
-    private static int parseScore(String line) {
-        int idx = line.lastIndexOf('-');
-        if (idx == -1) return 0;
-        try {
-            return Integer.parseInt(line.substring(idx + 1).trim());
-        } catch (NumberFormatException e) {
-            return 0;
-        }
+        return lines;
     }
-}
\ No newline at end of file
+}
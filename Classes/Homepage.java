@@ -10,14 +10,9 @@ import java.awt.GraphicsEnvironment;
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
 import java.awt.image.BufferedImage;
-import java.io.BufferedReader;
-import java.io.File;
-import java.io.FileReader;
-import java.io.IOException;
 import java.util.ArrayList;
 import java.awt.*;
 import java.awt.event.*;
-import java.io.*;
 import javax.swing.JFrame;
 import javax.swing.JPanel;
 
@@ -38,11 +33,6 @@ public class Homepage extends JFrame implements KeyListener {
     // Main drawing panel reference so we can request focus back
     private DrawingPanel drawingPanel;
 
-    // Legacy fields kept for reference but no longer used
-    ArrayList<String> scoreList;
-    private int scrollIndex = 0;
-    private static final int VISIBLE_LINES = 10;
-
     ArrayList<String> creditLines;
 
     private BufferedImage instruction = ResourceLoader.loadImage("Instructions4K.png");
@@ -99,21 +89,6 @@ public class Homepage extends JFrame implements KeyListener {
         this.setVisible(true);
     }
 
-    // Legacy score loading method kept for reference
-    private void loadScores() {
-        scoreList = new ArrayList<>();
-        File file = new File("highscores.txt");
-        if (!file.exists()) return;
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                if (!line.isBlank()) scoreList.add(line);
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-    }
-
     @Override
     public void keyPressed(KeyEvent e) {
         // When the leaderboard is showing, delegate key events
@@ -146,7 +121,7 @@ public class Homepage extends JFrame implements KeyListener {
         if (e.getKeyCode() == KeyEvent.VK_L) {
             switch (button) {
                 case 1:
-                    SoundPlayer.stopBackground();
+                    // Main's music crossfades from the menu track
                     this.dispose();
                     new Main();
                     break;
@@ -0,0 +1,244 @@
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Draws the in-game HUD from cached images. The HUD is split into two
+ * panels: the status panel on the left (hearts, shields and the inventory)
+ * and the score panel on the right (player name, score and wave). Each panel
+ * is rendered into its own translucent image, which is rebuilt only when one
+ * of the values it shows changes, so a normal frame draws the HUD as two
+ * blits instead of dozens of scaled images and strings.
+ * <p>
+ * Also hands out the derived fonts it uses, each created once per size.
+ * Event thread only.
+ */
+public class HudLayer {
+
+    private static final int BAR_LENGTH = 150;
+    private static final int SPACING = 20; // Space between the hearts, shields and inventory
+    private static final int MARGIN = 20; // Left margin of the status panel
+    private static final int ICON_SIZE = 60;
+    private static final double HEART_SCALE = 1.3; // Hearts are drawn larger so they match the shields
+
+    private final Font baseFont;
+    private final HashMap<Integer, Font> fonts = new HashMap<>();
+
+    private final BufferedImage heartsSheet = ResourceLoader.loadImage("HealthBar.png");
+    private final BufferedImage shieldFull = ResourceLoader.loadImage("FullShield.png");
+    private final BufferedImage shieldEmpty = ResourceLoader.loadImage("EmptyShield.png");
+    private final BufferedImage speedIcon = ResourceLoader.loadImage("SpeedBoostIcon.png");
+    private final BufferedImage shotgunIcon = ResourceLoader.loadImage("ShotgunIcon.png");
+    private final BufferedImage bandageIcon = ResourceLoader.loadImage("MedKit.png");
+    private final BufferedImage shieldIcon = ResourceLoader.loadImage("FullShield.png");
+
+    private String username = "";
+
+    // Status panel and the values it was built for
+    private BufferedImage statusImage;
+    private final Rectangle statusBounds = new Rectangle();
+    private int statusHealth = -1, statusShield = -1;
+    private final int[] statusInventory = new int[8];
+    private final int[] nextInventory = new int[8];
+
+    // Score panel and the values it was built for
+    private BufferedImage scoreImage;
+    private final Rectangle scoreBounds = new Rectangle();
+    private int shownScore = -1, shownWave = -1;
+    private String shownName;
+
+    /**
+     * @param baseFont Font the HUD text is derived from
+     */
+    public HudLayer(Font baseFont) {
+        this.baseFont = baseFont;
+    }
+
+    /**
+     * @return the base font at the given size, derived on first use
+     */
+    public Font getFont(int size) {
+        return fonts.computeIfAbsent(size, s -> baseFont.deriveFont(Font.PLAIN, s));
+    }
+
+    /** Sets the name shown above the score. */
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    /**
+     * Draws both panels, rebuilding any whose values changed. The graphics
+     * context must not be scaled.
+     *
+     * @param g      Unscaled graphics context
+     * @param s      Snapshot whose values are shown
+     * @param width  Width of the panel being drawn on
+     * @param height Height of the panel being drawn on
+     * @param scoreX Screen x of the score panel
+     * @param scoreY Screen y the score panel is laid out around
+     */
+    public void draw(Graphics2D g, RenderSnapshot s, int width, int height, int scoreX, int scoreY) {
+        int statusY = height / 10;
+        if (statusImage == null || isStatusStale(s) || statusBounds.y != statusY - 10) {
+            rebuildStatus(g, s, statusY);
+        }
+        g.drawImage(statusImage, statusBounds.x, statusBounds.y, null);
+
+        int scoreW = width - scoreX;
+        if (scoreW <= 0) return; // No room beside the world
+        if (scoreImage == null || isScoreStale(s) || scoreBounds.x != scoreX
+                || scoreBounds.y != scoreY - 180 || scoreBounds.width != scoreW) {
+            rebuildScore(g, s, scoreX, scoreY, scoreW);
+        }
+        g.drawImage(scoreImage, scoreBounds.x, scoreBounds.y, null);
+    }
+
+    /** @return true if the status panel shows different values than {@code s} */
+    public boolean isStatusStale(RenderSnapshot s) {
+        fillInventory(s, nextInventory);
+        return s.getHealth() != statusHealth || s.getShield() != statusShield
+                || !Arrays.equals(nextInventory, statusInventory);
+    }
+
+    /** @return true if the score panel shows different values than {@code s} */
+    public boolean isScoreStale(RenderSnapshot s) {
+        return s.getScore() != shownScore || s.getWave() != shownWave || !username.equals(shownName);
+    }
+
+    /** @return screen area of the status panel as last drawn */
+    public Rectangle getStatusBounds() {
+        return statusBounds;
+    }
+
+    /** @return screen area of the score panel as last drawn */
+    public Rectangle getScoreBounds() {
+        return scoreBounds;
+    }
+
+    /** Copies the values shown in the inventory part of the status panel. */
+    private static void fillInventory(RenderSnapshot s, int[] out) {
+        out[0] = s.getSpeedCount();
+        out[1] = s.getShotgunCount();
+        out[2] = s.getBandageCount();
+        out[3] = s.getShieldPotionCount();
+        out[4] = s.isSpeedActive() ? 1 : 0;
+        out[5] = s.isShotgunActive() ? 1 : 0;
+        out[6] = s.getSpeedRemaining() / 1000;
+        out[7] = s.getShotgunRemaining() / 1000;
+    }
+
+    private void rebuildStatus(Graphics2D target, RenderSnapshot s, int barY) {
+        int heartBaseSize = 0;
+        int heartsHeight = 0;
+        int heartsWidth = 0;
+        if (heartsSheet != null) {
+            heartBaseSize = (int) ((heartsSheet.getHeight() / 5 / (double) heartsSheet.getWidth()) * BAR_LENGTH);
+            heartsHeight = (int) (heartBaseSize * HEART_SCALE);
+            heartsWidth = (int) (BAR_LENGTH * HEART_SCALE);
+        }
+        int shieldSize = heartBaseSize;
+        int shieldY = barY + heartsHeight + SPACING;
+        int invY = shieldY + shieldSize + SPACING + 40;
+
+        int top = barY - 10;
+        int right = Math.max(Math.max(MARGIN + heartsWidth + 50, MARGIN + 5 * shieldSize + 72) + 10, MARGIN + 400);
+        int bottom = invY + 4 * ICON_SIZE + 130;
+        statusBounds.setBounds(0, top, right, bottom - top);
+        statusImage = ensureImage(target, statusImage, statusBounds.width, statusBounds.height);
+
+        fillInventory(s, statusInventory);
+        statusHealth = s.getHealth();
+        statusShield = s.getShield();
+
+        Graphics2D g = begin(target, statusImage, statusBounds);
+        try {
+            if (heartsSheet != null) {
+                // Heart-based health indicator
+                int rowHeight = heartsSheet.getHeight() / 5;
+                int rowIndex = Math.max(0, Math.min(4, 5 - statusHealth));
+                g.drawImage(heartsSheet, MARGIN + 50, barY, MARGIN + heartsWidth + 50, barY + heartsHeight,
+                        0, rowIndex * rowHeight, heartsSheet.getWidth(), (rowIndex + 1) * rowHeight, null);
+
+                // Shield icons at base size
+                for (int i = 0; i < 5; i++) {
+                    BufferedImage img = i < statusShield ? shieldFull : shieldEmpty;
+                    g.drawImage(img, MARGIN + i * shieldSize + 72, shieldY - 10, shieldSize, shieldSize, null);
+                }
+            }
+
+            // Power-up and heal inventory
+            g.setFont(getFont(50));
+            g.setColor(Color.WHITE);
+            g.drawString("Power-Ups", MARGIN + 60, invY - 10);
+            int drawY = invY;
+            drawItem(g, speedIcon, statusInventory[0], drawY);
+            if (statusInventory[4] != 0) g.drawString(String.valueOf(statusInventory[6]), MARGIN, drawY + ICON_SIZE + 15);
+
+            drawY += ICON_SIZE + 30;
+            drawItem(g, shotgunIcon, statusInventory[1], drawY);
+            if (statusInventory[5] != 0) g.drawString(String.valueOf(statusInventory[7]), MARGIN, drawY + ICON_SIZE + 15);
+
+            drawY += ICON_SIZE + 40;
+            g.drawString("Heals", MARGIN + 60, drawY - 10);
+            drawItem(g, bandageIcon, statusInventory[2], drawY);
+
+            drawY += ICON_SIZE + 30;
+            drawItem(g, shieldIcon, statusInventory[3], drawY);
+        } finally {
+            g.dispose();
+        }
+    }
+
+    private void drawItem(Graphics2D g, BufferedImage icon, int count, int y) {
+        g.drawImage(icon, MARGIN + 60, y, ICON_SIZE, ICON_SIZE, null);
+        g.drawString("x" + count, MARGIN + ICON_SIZE + 45, y + ICON_SIZE - 5);
+    }
+
+    private void rebuildScore(Graphics2D target, RenderSnapshot s, int x, int waveY, int width) {
+        scoreBounds.setBounds(x, waveY - 180, width, 290);
+        scoreImage = ensureImage(target, scoreImage, scoreBounds.width, scoreBounds.height);
+
+        shownScore = s.getScore();
+        shownWave = s.getWave();
+        shownName = username;
+
+        Graphics2D g = begin(target, scoreImage, scoreBounds);
+        try {
+            g.setColor(Color.WHITE);
+            g.setFont(getFont(100));
+            g.drawString(shownName, x, waveY - 70);
+            g.drawString(String.valueOf(shownScore), x, waveY - 20);
+            g.setFont(getFont(80));
+            g.drawString("Wave " + shownWave, x, waveY + 80);
+        } finally {
+            g.dispose();
+        }
+    }
+
+    /** Reuses the image if it has the right size, otherwise replaces it with a compatible one. */
+    private static BufferedImage ensureImage(Graphics2D target, BufferedImage image, int width, int height) {
+        if (image != null && image.getWidth() == width && image.getHeight() == height) return image;
+        if (image != null) image.flush();
+        return target.getDeviceConfiguration().createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+    }
+
+    /**
+     * Clears the image and returns a context for drawing into it in screen
+     * coordinates, with the same hints as the target.
+     */
+    private static Graphics2D begin(Graphics2D target, BufferedImage image, Rectangle bounds) {
+        Graphics2D g = image.createGraphics();
+        g.setRenderingHints(target.getRenderingHints());
+        g.setComposite(AlphaComposite.Clear);
+        g.fillRect(0, 0, image.getWidth(), image.getHeight());
+        g.setComposite(AlphaComposite.SrcOver);
+        g.translate(-bounds.x, -bounds.y);
+        return g;
+    }
+}
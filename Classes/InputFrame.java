@@ -0,0 +1,54 @@
+/**
+ * Snapshot of the player's input for a single simulation tick.
+ * Directional flags describe keys that are currently held, while the
+ * action flags are one-shot requests that the caller clears after
+ * each {@link GameWorld#step(InputFrame)}.
+ */
+public class InputFrame {
+
+    // Held movement keys
+    public boolean up, down, left, right;
+
+    // One-shot actions
+    public boolean startWave;
+    public boolean fire;
+    public boolean useSpeedBoost;
+    public boolean useShotgun;
+    public boolean useBandage;
+    public boolean useShieldPotion;
+
+    /** @return true if any movement key is held */
+    public boolean isMoving() {
+        return up || down || left || right;
+    }
+
+    /** Clears the one-shot actions so they only fire on a single tick. */
+    public void clearActions() {
+        startWave = false;
+        fire = false;
+        useSpeedBoost = false;
+        useShotgun = false;
+        useBandage = false;
+        useShieldPotion = false;
+    }
+
+    /** Copies every key and action from another frame. */
+    public void set(InputFrame other) {
+        up = other.up;
+        down = other.down;
+        left = other.left;
+        right = other.right;
+        startWave = other.startWave;
+        fire = other.fire;
+        useSpeedBoost = other.useSpeedBoost;
+        useShotgun = other.useShotgun;
+        useBandage = other.useBandage;
+        useShieldPotion = other.useShieldPotion;
+    }
+
+    /** Releases every key and clears pending actions. */
+    public void clear() {
+        up = down = left = right = false;
+        clearActions();
+    }
+}
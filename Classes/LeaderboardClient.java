@@ -0,0 +1,167 @@
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends scores to a {@link LeaderboardServer} from a background thread.
+ * Scores that arrive close together are sent as one batch, and a batch
+ * that fails is retried with a growing delay until the server takes it,
+ * so submitting never blocks the game and a server that is down for a
+ * while loses nothing. Every attempt at a batch carries the same id, so a
+ * batch the server stored but answered too late for is not stored again
+ * when it is retried. A batch the server rejects as malformed is dropped,
+ * as are new scores while more than {@value #MAX_QUEUED} are waiting.
+ */
+public class LeaderboardClient {
+
+    /** Most scores sent in one request. */
+    private static final int MAX_BATCH = 500;
+    /** How long to wait for more scores before sending a batch that isn't full. */
+    private static final long LINGER_MS = 50;
+    private static final long MIN_BACKOFF_MS = 250;
+    private static final long MAX_BACKOFF_MS = 30_000;
+    private static final int MAX_QUEUED = 100_000;
+
+    private final URI scoresUri;
+    private final HttpClient http;
+    private final LinkedBlockingQueue<ScoreLine> queue = new LinkedBlockingQueue<>(MAX_QUEUED);
+    private final Object sentLock = new Object();
+    private long submitted, sent, dropped; // Guarded by sentLock
+    private volatile long failures;
+
+    /**
+     * @param baseUrl Server address, e.g. {@code http://localhost:8650}
+     */
+    public LeaderboardClient(String baseUrl) {
+        scoresUri = URI.create(baseUrl.replaceAll("/+$", "") + "/scores");
+        http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+        Thread t = new Thread(this::sendLoop, "leaderboard-client");
+        t.setDaemon(true);
+        t.start();
+    }
+
+    /**
+     * @return a client for the server named by {@code -Dgame.leaderboardUrl},
+     * or null when it isn't set
+     */
+    public static LeaderboardClient fromProperty() {
+        String url = System.getProperty("game.leaderboardUrl");
+        return url == null || url.isBlank() ? null : new LeaderboardClient(url);
+    }
+
+    /** Queues a score to be sent. Never blocks. */
+    public void submit(ScoreLine entry) {
+        synchronized (sentLock) {
+            if (!queue.offer(entry)) {
+                dropped++;
+                return;
+            }
+            submitted++;
+        }
+    }
+
+    /**
+     * Waits until every score submitted so far has been sent, or the timeout
+     * runs out.
+     *
+     * @return true if everything was sent
+     */
+    public boolean flush(long timeoutMs) {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        synchronized (sentLock) {
+            long target = submitted;
+            try {
+                while (sent < target) {
+                    long left = deadline - System.currentTimeMillis();
+                    if (left <= 0) return false;
+                    sentLock.wait(left);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            return true;
+        }
+    }
+
+    /** @return scores sent, whether the server accepted them or not */
+    public long getSent() {
+        synchronized (sentLock) {
+            return sent;
+        }
+    }
+
+    /** @return requests that failed and were retried */
+    public long getFailures() {
+        return failures;
+    }
+
+    /** @return scores dropped because too many were waiting or the server rejected them */
+    public long getDropped() {
+        synchronized (sentLock) {
+            return dropped;
+        }
+    }
+
+    private void sendLoop() {
+        List<ScoreLine> batch = new ArrayList<>();
+        while (true) {
+            boolean rejected;
+            try {
+                batch.add(queue.take());
+                // Give scores arriving together a moment to join the batch
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(LINGER_MS);
+                while (batch.size() < MAX_BATCH) {
+                    ScoreLine next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                }
+                String batchId = UUID.randomUUID().toString();
+                long backoff = MIN_BACKOFF_MS;
+                int status;
+                while ((status = send(batch, batchId)) < 200 || status >= 500) {
+                    failures++;
+                    Thread.sleep(backoff);
+                    backoff = Math.min(MAX_BACKOFF_MS, backoff * 2);
+                }
+                rejected = status >= 300; // Retrying won't help
+            } catch (InterruptedException e) {
+                continue; // Daemon thread; only stops with the JVM
+            }
+            synchronized (sentLock) {
+                sent += batch.size();
+                if (rejected) dropped += batch.size();
+                sentLock.notifyAll();
+            }
+            batch.clear();
+        }
+    }
+
+    /** @return the response status, or 0 if the server couldn't be reached */
+    private int send(List<ScoreLine> batch, String batchId) throws InterruptedException {
+        StringBuilder body = new StringBuilder();
+        for (ScoreLine entry : batch) {
+            body.append(entry).append('\n');
+        }
+        HttpRequest request = HttpRequest.newBuilder(scoresUri)
+                .timeout(Duration.ofSeconds(5))
+                .header("Content-Type", "text/plain; charset=utf-8")
+                .header("Batch-Id", batchId)
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString(), StandardCharsets.UTF_8))
+                .build();
+        try {
+            return http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
@@ -2,13 +2,25 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
-import java.io.*;
-import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * Panel that displays the high score leaderboard. Text is centred
- * in a resizable rectangle outline and supports scrolling with W/S.
+ * in a resizable rectangle outline and supports scrolling with W/S, and a
+ * screen at a time with A/D or Page Up/Down.
+ * <p>
+ * Entries are fetched from the {@link HighscoreManager} a page at a time by
+ * a background loader, only around the part that is on screen, so opening
+ * or scrolling a leaderboard of millions of entries never waits on the
+ * scores on the EDT. Each entry's text, colour and width are worked out
+ * once when its page arrives, so painting costs the same whatever the
+ * size of the leaderboard. Entries not loaded yet show as a placeholder.
  */
 public class LeaderboardPanel extends JPanel implements KeyListener {
 
@@ -18,18 +30,55 @@ public class LeaderboardPanel extends JPanel implements KeyListener {
     /** Padding around text inside the outline rectangle. */
     private static final int PADDING = 40;
 
-    /** Parsed list of username/score pairs. */
-    private final List<ScoreEntry> scores = new ArrayList<>();
+    /** Entries fetched at a time. */
+    private static final int PAGE_SIZE = 64;
 
-    /** Font loaded from /res/Fonts */
-    private final Font font = FontLoader.loadFont("Game-Font.ttf");
+    /** Pages kept in memory; others are fetched again when scrolled back to. */
+    private static final int CACHED_PAGES = 16;
 
-    /** Current scroll offset. */
-    private int scrollOffset = 0;
+    private static final Color GOLD = new Color(255, 215, 0);
+
+    // Shared by every panel; fetches run one at a time
+    private static final ExecutorService loader = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "leaderboard-loader");
+        t.setDaemon(true);
+        return t;
+    });
+
+    /** One entry, laid out once. */
+    private static class Row {
+        final String text;
+        final Color color;
+        int width = -1; // Measured on first paint
+
+        Row(String text, Color color) {
+            this.text = text;
+            this.color = color;
+        }
+    }
+
+    /** Bold, large font for arcade readability */
+    private final Font font = FontLoader.loadFont("Game-Font.ttf").deriveFont(Font.BOLD, 60f);
 
     /** Optional player name used to highlight the player's own score. */
     private final String playerName;
 
+    // EDT only
+    private final Map<Integer, Row[]> pages = new LinkedHashMap<>(CACHED_PAGES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Row[]> eldest) {
+            return size() > CACHED_PAGES;
+        }
+    };
+    private final Set<Integer> requested = new HashSet<>();
+    private final Row loading = new Row("...", Color.GRAY);
+    private int total; // Number of entries, as of the last load
+    private int generation; // Bumped by every reload, so older fetches are ignored
+    private int scrollOffset = 0;
+
+    // Pages around the screen; fetches queued for pages scrolled away from are skipped
+    private volatile int wantedFirst, wantedLast;
+
     public LeaderboardPanel(String playerName) {
         this.playerName = playerName;
         setFocusable(true);
@@ -43,35 +92,91 @@ public class LeaderboardPanel extends JPanel implements KeyListener {
     }
 
     /**
-     * Loads scores from highscores.txt. Ensures the file is sorted
+     * Reloads the scores from the {@link HighscoreManager} in the background.
+     * Returns at once; the panel repaints as entries arrive. Call on the EDT.
      */
     public final void loadScores() {
-        HighscoreManager.sortScores();
-        scores.clear();
-        File file = new File("highscores.txt");
-        if (!file.exists()) {
-            return;
+        pages.clear();
+        requested.clear();
+        int gen = ++generation;
+        loader.execute(() -> {
+            int count = HighscoreManager.getEntryCount();
+            SwingUtilities.invokeLater(() -> {
+                if (gen != generation) return;
+                total = count;
+                // Ensure we do not scroll past the end after reloading
+                scrollTo(scrollOffset);
+                requestVisiblePages();
+                repaint();
+            });
+        });
+    }
+
+    private void scrollTo(int offset) {
+        int clamped = Math.max(0, Math.min(offset, total - VISIBLE_LINES));
+        if (clamped == scrollOffset) return;
+        scrollOffset = clamped;
+        requestVisiblePages();
+        repaint();
+    }
+
+    /** Requests the pages on screen, and the next ones if the screen is near their edge. */
+    private void requestVisiblePages() {
+        if (total == 0) return;
+        int first = Math.max(0, scrollOffset - PAGE_SIZE / 2) / PAGE_SIZE;
+        int last = Math.min(total - 1, scrollOffset + VISIBLE_LINES + PAGE_SIZE / 2) / PAGE_SIZE;
+        wantedFirst = first;
+        wantedLast = last;
+        for (int page = first; page <= last; page++) {
+            request(page);
         }
-        try (BufferedReader br = new BufferedReader(new FileReader(file))) {
-            String line;
-            while ((line = br.readLine()) != null) {
-                if (!line.isBlank()) {
-                    int idx = line.lastIndexOf('-');
-                    if (idx != -1) {
-                        String name = line.substring(0, idx).trim();
-                        try {
-                            int sc = Integer.parseInt(line.substring(idx + 1).trim());
-                            scores.add(new ScoreEntry(name, sc));
-                        } catch (NumberFormatException ignored) {
-                        }
-                    }
+    }
+
+    private void request(int page) {
+        if (pages.containsKey(page) || !requested.add(page)) return;
+        int gen = generation;
+        loader.execute(() -> {
+            Row[] rows = null;
+            if (page >= wantedFirst && page <= wantedLast) {
+                rows = layOut(page, HighscoreManager.getScores(page * PAGE_SIZE, PAGE_SIZE));
+            }
+            Row[] loaded = rows;
+            SwingUtilities.invokeLater(() -> {
+                if (gen != generation) return;
+                requested.remove(page);
+                if (loaded == null) {
+                    requestVisiblePages(); // Skipped; fetch again if it's wanted after all
+                    return;
                 }
+                pages.put(page, loaded);
+                repaint();
+            });
+        });
+    }
+
+    /** Builds the rows of a page. */
+    private Row[] layOut(int page, List<ScoreLine> entries) {
+        Row[] rows = new Row[entries.size()];
+        for (int i = 0; i < rows.length; i++) {
+            ScoreLine entry = entries.get(i);
+            int index = page * PAGE_SIZE + i;
+            // Highlight the top score in gold, player's own score in cyan
+            Color color = Color.WHITE;
+            if (index == 0) {
+                color = GOLD;
+            } else if (playerName != null && playerName.equalsIgnoreCase(entry.username)) {
+                color = Color.CYAN;
             }
-        } catch (IOException e) {
-            e.printStackTrace();
+            rows[i] = new Row(entry.username + " - " + entry.score, color);
         }
-        // Ensure we do not scroll past the end after reloading
-        scrollOffset = Math.min(scrollOffset, Math.max(0, scores.size() - VISIBLE_LINES));
+        return rows;
+    }
+
+    /** @return the row at a position, or the placeholder if its page isn't loaded */
+    private Row row(int index) {
+        Row[] page = pages.get(index / PAGE_SIZE);
+        int at = index % PAGE_SIZE;
+        return page != null && at < page.length ? page[at] : loading;
     }
 
     @Override
@@ -81,19 +186,20 @@ public class LeaderboardPanel extends JPanel implements KeyListener {
         g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
                 RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
 
-        // Bold, large font for arcade readability
-        g2.setFont(font.deriveFont(Font.BOLD, 60f));
+        g2.setFont(font);
         FontMetrics fm = g2.getFontMetrics();
         int lineHeight = fm.getHeight() + 10; // extra spacing between entries
 
-        int visible = Math.min(VISIBLE_LINES, scores.size());
+        int visible = Math.min(VISIBLE_LINES, total - scrollOffset);
+        if (visible <= 0) return;
 
-        // Calculate the maximum string width of the visible entries to size the rectangle
+        // Size the rectangle to the widest visible entry
+        Row[] rows = new Row[visible];
         int maxWidth = 0;
         for (int i = 0; i < visible; i++) {
-            ScoreEntry e = scores.get(i + scrollOffset);
-            String text = e.username + " - " + e.score;
-            maxWidth = Math.max(maxWidth, fm.stringWidth(text));
+            rows[i] = row(scrollOffset + i);
+            if (rows[i].width < 0) rows[i].width = fm.stringWidth(rows[i].text);
+            maxWidth = Math.max(maxWidth, rows[i].width);
         }
 
         // Rectangle dimensions with padding on all sides
@@ -110,45 +216,25 @@ public class LeaderboardPanel extends JPanel implements KeyListener {
 
         // Draw the visible leaderboard entries centred within the rectangle
         int y = rectY + PADDING + fm.getAscent();
-        for (int i = 0; i < visible; i++) {
-            int index = scrollOffset + i;
-            ScoreEntry entry = scores.get(index);
-            String text = entry.username + " - " + entry.score;
-            int textW = fm.stringWidth(text);
-            int x = rectX + (rectWidth - textW) / 2;
-
-            // Highlight the top score in gold, player's own score in cyan
-            if (index == 0) {
-                g2.setColor(new Color(255, 215, 0));
-            } else if (playerName != null && playerName.equalsIgnoreCase(entry.username)) {
-                g2.setColor(Color.CYAN);
-            } else {
-                g2.setColor(Color.WHITE);
-            }
-            g2.drawString(text, x, y);
+        for (Row row : rows) {
+            g2.setColor(row.color);
+            g2.drawString(row.text, rectX + (rectWidth - row.width) / 2, y);
             y += lineHeight;
         }
     }
 
     @Override
     public void keyPressed(KeyEvent e) {
-        int code = e.getKeyCode();
-        if (code == KeyEvent.VK_W && scrollOffset > 0) {
-            scrollOffset--; // scroll up
-            repaint();
-        } else if (code == KeyEvent.VK_S && scrollOffset < Math.max(0, scores.size() - VISIBLE_LINES)) {
-            scrollOffset++; // scroll down
-            repaint();
+        switch (e.getKeyCode()) {
+            case KeyEvent.VK_W, KeyEvent.VK_UP -> scrollTo(scrollOffset - 1);
+            case KeyEvent.VK_S, KeyEvent.VK_DOWN -> scrollTo(scrollOffset + 1);
+            case KeyEvent.VK_A, KeyEvent.VK_PAGE_UP -> scrollTo(scrollOffset - VISIBLE_LINES);
+            case KeyEvent.VK_D, KeyEvent.VK_PAGE_DOWN -> scrollTo(scrollOffset + VISIBLE_LINES);
+            case KeyEvent.VK_HOME -> scrollTo(0);
+            case KeyEvent.VK_END -> scrollTo(total);
         }
     }
 
     @Override public void keyReleased(KeyEvent e) {}
     @Override public void keyTyped(KeyEvent e) {}
-
-    /** Simple struct-like holder for parsed score lines. */
-    private static class ScoreEntry {
-        final String username;
-        final int score;
-        ScoreEntry(String u, int s) { this.username = u; this.score = s; }
-    }
 }
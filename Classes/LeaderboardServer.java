@@ -0,0 +1,394 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Optional leaderboard service that game instances submit their scores to.
+ * Scores are kept in memory in a {@link ScoreIndex}, so top-N and rank
+ * queries never touch the disk, and new scores are appended to a
+ * {@link ScoreStore} file every few seconds. Each request is handled on its
+ * own virtual thread.
+ * <p>
+ * Everything is plain text, one score per line in the {@code name - score}
+ * format of the old score file:
+ * <ul>
+ *     <li>{@code POST /scores} a batch of score lines; answers the number accepted.
+ *     A batch sent again with the same {@code Batch-Id} header, as a client
+ *     does when it retries, is accepted but not stored twice</li>
+ *     <li>{@code GET /top?from=0&n=20} scores from a position, highest first</li>
+ *     <li>{@code GET /rank?score=123} {@code rank}, {@code percentile} and
+ *     {@code entries} lines for a score</li>
+ *     <li>{@code GET /player?name=abc&n=3} a player's best scores</li>
+ * </ul>
+ * Submissions are not authenticated, so by default the server only listens
+ * on the loopback address and serves games on the same machine.
+ * <p>
+ * Usage: {@code LeaderboardServer [port] [file] [address]}, by default port
+ * {@value #DEFAULT_PORT}, {@code leaderboard.dat} and the loopback address.
+ * Pass e.g. {@code 0.0.0.0} as the address to accept scores from other
+ * machines.
+ */
+public class LeaderboardServer {
+
+    public static final int DEFAULT_PORT = 8650;
+    /** Most scores accepted in one submission. */
+    private static final int MAX_BATCH = 10_000;
+    /** Largest submission body read, room for a full batch of long lines. */
+    private static final int MAX_BODY_BYTES = MAX_BATCH * 64;
+    /** Most scores returned by one query. */
+    private static final int MAX_PAGE = 1000;
+    private static final long SNAPSHOT_MS = 5000;
+    /** Batch ids remembered for spotting retried submissions. */
+    private static final int RECENT_BATCHES = 100_000;
+    /** Longest wait, in seconds, for requests in progress when stopping. */
+    private static final int STOP_SECONDS = 5;
+    /**
+     * Seconds the listener gives requests in progress to send their answers.
+     * Kept short since older JDKs always wait this long.
+     */
+    private static final int ANSWER_SECONDS = 1;
+
+    static {
+        // Small responses would otherwise wait on Nagle's algorithm and delayed ACKs
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final HttpServer server;
+    private final ExecutorService handlers = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService snapshots;
+    private final ScoreStore store;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // Guarded by lock. Entries are numbered in the order they arrived,
+    // which is also their record number in the store
+    private final ScoreIndex index;
+    private final Map<String, ScoreIndex> players = new HashMap<>(); // By lowercase name
+    private String[] names;
+    private int[] scores;
+    private long[] times;
+    private int size;
+    private int snapshotted; // Entries already in the store
+    private final Map<String, Boolean> recentBatches = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+            return size() > RECENT_BATCHES;
+        }
+    };
+
+    /**
+     * Loads the scores in the file and binds the port on the loopback
+     * address. Call {@link #start()} to begin serving.
+     *
+     * @param port Port to listen on, or 0 for any free port
+     * @throws IOException if the file can't be opened or the port bound
+     */
+    public LeaderboardServer(int port, Path file) throws IOException {
+        this(InetAddress.getLoopbackAddress(), port, file);
+    }
+
+    /**
+     * Loads the scores in the file and binds the port. Call {@link #start()}
+     * to begin serving.
+     *
+     * @param address Address to listen on; the wildcard address listens on
+     *                every interface
+     * @param port    Port to listen on, or 0 for any free port
+     * @throws IOException if the file can't be opened or the port bound
+     */
+    public LeaderboardServer(InetAddress address, int port, Path file) throws IOException {
+        store = new ScoreStore(file);
+        size = store.size();
+        int capacity = Math.max(1024, size);
+        names = new String[capacity];
+        scores = new int[capacity];
+        times = new long[capacity];
+        long[] keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            names[i] = store.getName(i);
+            scores[i] = store.getScore(i);
+            times[i] = store.getTime(i);
+            keys[i] = ScoreIndex.key(scores[i], i);
+            player(names[i]).add(scores[i], i);
+        }
+        index = new ScoreIndex(keys, size);
+        snapshotted = size;
+
+        try {
+            server = HttpServer.create(new InetSocketAddress(address, port), 0);
+        } catch (IOException e) {
+            store.close();
+            throw e;
+        }
+        server.setExecutor(handlers);
+        server.createContext("/scores", this::handleScores);
+        server.createContext("/top", this::handleTop);
+        server.createContext("/rank", this::handleRank);
+        server.createContext("/player", this::handlePlayer);
+
+        snapshots = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "leaderboard-snapshot");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public void start() {
+        server.start();
+        snapshots.scheduleWithFixedDelay(this::snapshot, SNAPSHOT_MS, SNAPSHOT_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops serving and writes the scores not in the file yet. Requests in
+     * progress get up to {@value #STOP_SECONDS} seconds to finish first, so
+     * the scores they accepted are in the last snapshot.
+     */
+    public void stop() {
+        server.stop(ANSWER_SECONDS);
+        handlers.shutdown();
+        snapshots.shutdown();
+        try {
+            if (!handlers.awaitTermination(STOP_SECONDS, TimeUnit.SECONDS)) {
+                System.err.println("Leaderboard requests still running at shutdown");
+            }
+            snapshots.awaitTermination(STOP_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        snapshot();
+        try {
+            store.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /** @return the port the server listens on */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /** Appends the entries that arrived since the last snapshot to the file. */
+    private synchronized void snapshot() {
+        List<ScoreStore.Record> records = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (int i = snapshotted; i < size; i++) {
+                records.add(new ScoreStore.Record(names[i], scores[i], times[i]));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (records.isEmpty()) return;
+        try {
+            store.append(records);
+            store.force();
+            snapshotted += records.size();
+        } catch (IOException e) {
+            e.printStackTrace(); // Tried again at the next snapshot
+        }
+    }
+
+    private void handleScores(HttpExchange ex) throws IOException {
+        if (!ex.getRequestMethod().equals("POST")) {
+            respond(ex, 405, "POST only\n");
+            return;
+        }
+        // Turn away oversized bodies before reading them
+        String length = ex.getRequestHeaders().getFirst("Content-Length");
+        if (length != null && parseLong(length) > MAX_BODY_BYTES) {
+            tooLarge(ex);
+            return;
+        }
+        byte[] body;
+        try (InputStream in = ex.getRequestBody()) {
+            body = in.readNBytes(MAX_BODY_BYTES + 1); // Chunked bodies have no length
+        }
+        if (body.length > MAX_BODY_BYTES) {
+            tooLarge(ex);
+            return;
+        }
+        String[] lines = new String(body, StandardCharsets.UTF_8).split("\n");
+        List<String> batch = new ArrayList<>(lines.length);
+        for (String line : lines) {
+            if (!line.isBlank()) batch.add(line);
+        }
+        if (batch.size() > MAX_BATCH) {
+            tooLarge(ex);
+            return;
+        }
+        String batchId = ex.getRequestHeaders().getFirst("Batch-Id");
+        long now = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            // A retry of a batch already stored, whose answer the client missed
+            boolean stored = batchId != null && recentBatches.put(batchId, Boolean.TRUE) != null;
+            if (!stored) {
+                for (String line : batch) {
+                    add(ScoreLine.parse(line), now);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        respond(ex, 200, batch.size() + "\n");
+    }
+
+    private void handleTop(HttpExchange ex) throws IOException {
+        Map<String, String> query = query(ex);
+        int from = Math.max(0, intParam(query, "from", 0));
+        int n = Math.min(MAX_PAGE, Math.max(0, intParam(query, "n", 20)));
+        StringBuilder sb = new StringBuilder();
+        lock.readLock().lock();
+        try {
+            int[] records = new int[n];
+            int count = index.page(from, records);
+            appendEntries(sb, records, count);
+        } finally {
+            lock.readLock().unlock();
+        }
+        respond(ex, 200, sb.toString());
+    }
+
+    private void handleRank(HttpExchange ex) throws IOException {
+        Map<String, String> query = query(ex);
+        if (!query.containsKey("score")) {
+            respond(ex, 400, "score is required\n");
+            return;
+        }
+        int score = intParam(query, "score", 0);
+        String body;
+        lock.readLock().lock();
+        try {
+            body = String.format(Locale.ROOT, "rank %d%npercentile %.2f%nentries %d%n",
+                    index.rank(score), index.percentile(score), index.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+        respond(ex, 200, body);
+    }
+
+    private void handlePlayer(HttpExchange ex) throws IOException {
+        Map<String, String> query = query(ex);
+        String name = query.get("name");
+        if (name == null) {
+            respond(ex, 400, "name is required\n");
+            return;
+        }
+        int n = Math.min(MAX_PAGE, Math.max(0, intParam(query, "n", 3)));
+        StringBuilder sb = new StringBuilder();
+        lock.readLock().lock();
+        try {
+            ScoreIndex player = players.get(name.toLowerCase(Locale.ROOT));
+            if (player != null) {
+                int[] records = new int[Math.min(n, player.size())];
+                appendEntries(sb, records, player.page(0, records));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        respond(ex, 200, sb.toString());
+    }
+
+    /** Adds an entry. Call with the write lock held. */
+    private void add(ScoreLine entry, long time) {
+        if (size == names.length) {
+            int capacity = size * 2;
+            names = Arrays.copyOf(names, capacity);
+            scores = Arrays.copyOf(scores, capacity);
+            times = Arrays.copyOf(times, capacity);
+        }
+        names[size] = entry.username;
+        scores[size] = entry.score;
+        times[size] = time;
+        index.add(entry.score, size);
+        player(entry.username).add(entry.score, size);
+        size++;
+    }
+
+    private ScoreIndex player(String name) {
+        return players.computeIfAbsent(name.toLowerCase(Locale.ROOT), k -> new ScoreIndex());
+    }
+
+    /** Writes entries as score lines. Call with the read lock held. */
+    private void appendEntries(StringBuilder sb, int[] records, int count) {
+        for (int i = 0; i < count; i++) {
+            sb.append(names[records[i]]).append(" - ").append(scores[records[i]]).append('\n');
+        }
+    }
+
+    private static void tooLarge(HttpExchange ex) throws IOException {
+        respond(ex, 413, "At most " + MAX_BATCH + " scores or " + MAX_BODY_BYTES + " bytes per batch\n");
+    }
+
+    /** @return the value, or Long.MAX_VALUE if it isn't a number */
+    private static long parseLong(String value) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    private static Map<String, String> query(HttpExchange ex) {
+        Map<String, String> params = new HashMap<>();
+        String raw = ex.getRequestURI().getRawQuery();
+        if (raw == null) return params;
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq <= 0) continue;
+            params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                    URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    private static int intParam(Map<String, String> query, String name, int fallback) {
+        try {
+            return Integer.parseInt(query.getOrDefault(name, Integer.toString(fallback)));
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    private static void respond(HttpExchange ex, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        ex.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = ex.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        Path file = Paths.get(args.length > 1 ? args[1] : "leaderboard.dat");
+        InetAddress address = args.length > 2 ? InetAddress.getByName(args[2]) : InetAddress.getLoopbackAddress();
+        LeaderboardServer server = new LeaderboardServer(address, port, file);
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+        server.start();
+        System.out.println("Leaderboard serving " + server.size + " scores on "
+                + address.getHostAddress() + ":" + server.getPort());
+    }
+}
@@ -1,92 +1,142 @@
 import java.awt.*;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.HashMap;
 import javax.swing.*;
 import java.util.HashSet;
 import java.util.Set;
-import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
 import javax.sound.sampled.*;
 import java.io.*;
 
 
 /**
  * The main game engine class that handles the frame, game loop, input, and rendering.
+ * <p>
+ * The game world is only stepped on the {@link GameLoop}'s simulation thread,
+ * which publishes a {@link RenderSnapshot} every frame. The Swing event thread
+ * handles input and only touches the world itself while the loop is stopped.
+ * The latest snapshot is drawn on the event thread, or with active rendering
+ * on a render thread of its own, so frames never wait behind input events.
  */
-public class Main extends JFrame implements ActionListener, KeyListener {
+public class Main extends JFrame implements KeyListener {
 
 	// Constants
-	public static final int GAME_WIDTH = 900;
-	public static final int GAME_HEIGHT = 900;
-	private final int TIMESPEED = 10; // Timer delay in ms
-	private static int COUNTER = 0;
-	private static int DAMAGE_RATE = 30;
-	private static int FRAME_REFRESH_RATE = 8;
-
-	// Enemies waves
-	private HashMap<Integer, Integer> entranceSpawnCounts = new HashMap<>();
-	private int wave;
-	private int enemiesToSpawn;
-	private int enemiesSpawnedThisWave;
-	private boolean waveInProgress;
-	private boolean paused, resume;
-	// Track whether the Game Over sound effect has already been played
-	private boolean hasPlayedGameOverSound;
+	public static final int GAME_WIDTH = GameWorld.WIDTH;
+	public static final int GAME_HEIGHT = GameWorld.HEIGHT;
+	private static final int DEFAULT_REFRESH_RATE = 60; // Used when the display doesn't report one
+
+	// Draw through a BufferStrategy instead of Swing repaints. Chosen at startup
+	// with --active-rendering or -Dgame.activeRendering=true
+	private static boolean activeRendering = Boolean.getBoolean("game.activeRendering");
+
+	/** How the world is scaled from its 900x900 logical size to the screen. */
+	private enum RenderQuality {
+		/** Draw every sprite and shape through a scaled, antialiased context. */
+		SCALED,
+		/** Draw the world 1:1 offscreen, then upscale it with nearest-neighbour sampling. */
+		NEAREST,
+		/** Draw the world 1:1 offscreen, then upscale it with bilinear filtering. */
+		BILINEAR
+	}
+
+	// Chosen at startup with --quality=<scaled|nearest|bilinear> or -Dgame.quality=<...>
+	private static RenderQuality renderQuality = parseQuality(System.getProperty("game.quality", "scaled"));
+
+	// Tint every repainted area so dirty-region tracking can be checked by eye.
+	// Toggled with F4 or enabled at startup with -Dgame.debugDirty=true
+	private static boolean debugDirty = Boolean.getBoolean("game.debugDirty");
+
+	// Phase timings shared by every game in this run. F3 toggles the overlay, and
+	// -Dgame.profileCsv=<file> writes the stats to a CSV file when the program exits,
+	// along with the image cache's figures to <file>-assets.csv
+	private static final TickProfiler profiler = new TickProfiler();
+	static {
+		String csv = System.getProperty("game.profileCsv");
+		if (csv != null) {
+			Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+				profiler.writeCsv(new File(csv));
+				ResourceLoader.writeCacheCsv(new File(csv.replaceFirst("(\\.csv)?$", "-assets.csv")));
+			}));
+		}
+	}
+
+	private volatile boolean paused, resume; // Set on the event thread, also read when drawing
 	private int xOffset, yOffset;
 
 	// State fields
-	private Set<Integer> keysPressed = new HashSet<>(); // Tracks currently held keys
-	private ArrayList<Enemy> enemies = new ArrayList<>();
-	private HashMap<Integer, Integer> enemyDamageCooldown = new HashMap<>();
-	private ArrayList<Bullet> bullets = new ArrayList<>();
-	private ArrayList<PowerUpItem> powerUpItems = new ArrayList<>();
-	private ArrayList<HealItem> healItems = new ArrayList<>();
-
+	private Set<Integer> keysPressed = new HashSet<>(); // Tracks currently held keys (event thread only)
+	private final InputFrame input = new InputFrame(); // Input gathered for the next tick; guarded by itself
+	private final InputFrame tickInput = new InputFrame(); // Copy of the input used by the simulation thread
+
+	// Frames handed from the simulation thread to the drawing thread: the event
+	// thread, or the render thread with active rendering
+	private final TripleBuffer<RenderSnapshot> snapshots = new TripleBuffer<>(RenderSnapshot::new);
+	private final AtomicBoolean framePending = new AtomicBoolean();
+	private Thread renderThread; // Only used with active rendering; set before the loop starts
+
+	// Drawing thread only: the snapshot on screen and the frame's interpolation factor
+	private RenderSnapshot current;
+	private double frameAlpha = 1;
+
+	// Dirty-region tracking for the Swing panel (event thread only)
+	private final DirtyRegions dirty = new DirtyRegions();
+	private DirtyRegions spriteRegions = new DirtyRegions();
+	private DirtyRegions lastSpriteRegions = new DirtyRegions();
+	private boolean repaintAll = true;
+	private int debugFrame;
+	private boolean shownDebugDirty;
+	// Values the screen currently shows, to detect when the whole scene changes
+	private MapGenerator shownMap;
+	private volatile boolean shownWaveInProgress; // Also read by the key handler
+	private int shownDamageAlpha;
+	private int shownWidth, shownHeight;
 
 	// Game objects
-	private Player player;
-	private MapGenerator map;
-	private Score score;
+	private GameWorld world;
+	private HudLayer hud;
 	private DrawingPanel draw;
+	private ActiveRenderCanvas canvas; // Only used with active rendering
 	private UsernameInputScreen usernameInput;
 	private Graphics2D g2;
-	private String username = "";
-
-	//enemy identifier
-	private int enemyNums;
+	private volatile String username = "";
 
 	// Assets
 	private BufferedImage background = ResourceLoader.loadImage("BackgroundMap.png");
 	private BufferedImage obstacle = ResourceLoader.loadImage("Obstacle.png");
-	private BufferedImage shotgunIcon = ResourceLoader.loadImage("ShotgunIcon.png");
-	private BufferedImage speedIcon = ResourceLoader.loadImage("SpeedBoostIcon.png");
 	private BufferedImage pauseBackground = ResourceLoader.loadImage("PauseBG.png");
-	private BufferedImage heartsSheet = ResourceLoader.loadImage("HealthBar.png");
-	private BufferedImage shieldFull = ResourceLoader.loadImage("FullShield.png");
-	private BufferedImage shieldEmpty = ResourceLoader.loadImage("EmptyShield.png");
-	private BufferedImage bandageIcon = ResourceLoader.loadImage("MedKit.png");
-	private BufferedImage shieldIcon = ResourceLoader.loadImage("FullShield.png");
 	private Font customFont = FontLoader.loadFont("Game-Font.ttf");
+	private StaticMapLayer mapLayer = new StaticMapLayer(background, obstacle);
+	// World drawn at its native size for the NEAREST and BILINEAR qualities (drawing thread only)
+	private BufferedImage worldBuffer;
+	private boolean worldBufferStale = true;
 
 
-	// Dimensions
-	private int panW = GAME_WIDTH, panH = GAME_HEIGHT;
-
-	// Timer
-	private Timer timer;
+	// Game loop
+	private GameLoop loop;
 
 	/**
 	 * Entry point for the program.
 	 */
 	public static void main(String[] args) {
+		for (String arg : args) {
+			if (arg.equals("--active-rendering")) activeRendering = true;
+			if (arg.startsWith("--quality=")) renderQuality = parseQuality(arg.substring("--quality=".length()));
+		}
 		new Homepage();
 	}
 
+	private static RenderQuality parseQuality(String name) {
+		try {
+			return RenderQuality.valueOf(name.toUpperCase(java.util.Locale.ROOT));
+		} catch (IllegalArgumentException e) {
+			System.err.println("Unknown render quality '" + name + "', using scaled");
+			return RenderQuality.SCALED;
+		}
+	}
+
 	/**
 	 * Constructor initializes game setup.
 	 */
@@ -95,42 +145,45 @@ public class Main extends JFrame implements ActionListener, KeyListener {
 	}
 
 	/**
-	 * Initializes the JFrame, player, map, and timer.
+	 * Initializes the JFrame, game world and game loop.
 	 */
 	private void setup() {
 		// Get full screen size
 		Dimension screenSize = Toolkit.getDefaultToolkit().getScreenSize();
 
-		enemyNums = 0;
-
 		// Initialize core game objects
-		player = new Player((GAME_WIDTH - 70) / 2, (GAME_HEIGHT - 70) / 2, 70, 70, 5, GAME_WIDTH, GAME_HEIGHT);
-		map = new MapGenerator(10, 10, 75, 1); // Creates 10x10 grid of 75px tiles
-		score = new Score();
-
-		//Enemies
-		wave = 1;
-		enemiesToSpawn = 2;
-		enemiesSpawnedThisWave = 0;
-		waveInProgress = false;
+		world = new GameWorld();
+		world.setProfiler(profiler);
+		publishSnapshot(0);
+		hud = new HudLayer(customFont);
+
 		paused = false;
 		resume = true;
-		hasPlayedGameOverSound = false;
-
-		// Drawing panel handles rendering
-		draw = new DrawingPanel(screenSize.width, screenSize.height);
 
 		this.setSize(screenSize.width, screenSize.height);
 		this.setExtendedState(JFrame.MAXIMIZED_BOTH);
 		this.setDefaultCloseOperation(EXIT_ON_CLOSE);
 		this.setUndecorated(true);
 		this.setLocationRelativeTo(null);
-		this.add(draw);
+
+		if (activeRendering) {
+			// Canvas is heavyweight, so the username overlay is drawn into each frame
+			canvas = new ActiveRenderCanvas((g, w, h) -> {
+				renderFrame(g, w, h);
+				if (usernameInput.isVisible()) usernameInput.paint(g);
+			});
+			this.setIgnoreRepaint(true);
+			this.add(canvas);
+		} else {
+			// Drawing panel handles rendering
+			draw = new DrawingPanel(screenSize.width, screenSize.height);
+			this.add(draw);
+		}
 
 		// Overlay username input before game starts
 		usernameInput = new UsernameInputScreen(name -> {
 			username = name;
-			score.setUsername(name);
+			hud.setUsername(name);
 			usernameInput.close();
 			// Return focus to the game window so joystick controls work
 			SwingUtilities.invokeLater(() -> {
@@ -143,238 +196,197 @@ public class Main extends JFrame implements ActionListener, KeyListener {
 		usernameInput.requestFocusInWindow();
 		this.setVisible(true);
 		SoundPlayer.playBackground("BackgroundMusic.wav");
+		SoundPlayer.preload("LaserGunshot.wav", "Shotgun.wav", "DamageNoise.wav", "SpeedBoostSound.wav", "GameOver.wav");
+		HighscoreManager.preload();
 
-		// Input and timer
+		if (activeRendering) {
+			renderThread = new Thread(this::renderLoop, "render");
+			renderThread.setDaemon(true);
+			renderThread.start();
+		}
+
+		// Input and game loop
 		this.addKeyListener(this);
-		enemies = new ArrayList<>();
-		timer = new Timer(TIMESPEED, this);
-		timer.start();
+		loop = new GameLoop(GameWorld.TICK_MS, getRefreshRate(), this::tick, alpha -> {
+			publishSnapshot(alpha);
+			redraw();
+		});
+		loop.start();
 	}
 
 	/**
-	 * Handles all movement logic for the player and bullets.
+	 * Returns the refresh rate of the screen so frames are rendered as often
+	 * as the display can show them.
 	 */
-	private void move() {
-		// Update bullets
-		for (int i = 0; i < bullets.size(); ) {
-			Bullet b = bullets.get(i);
-			boolean remove = false;
-
-			// Collision with obstacles
-			for (Rectangle r : map.getObstacles()) {
-				if (b.intersects(r)) {
-					if (b instanceof BouncingBullet) {
-						if (!((BouncingBullet) b).bounce(r)) {
-							remove = true;
-						}
-					} else {
-						remove = true;
-					}
-					break;
-				}
-			}
-
-			// Collision with walls
-			if (!remove) {
-				for (Rectangle wall : map.getWalls()) {
-					if (b.intersects(wall)) {
-						if (b instanceof BouncingBullet) {
-							if (!((BouncingBullet) b).bounce(wall)) {
-								remove = true;
-							}
-						} else {
-							remove = true;
-						}
-						break;
-					}
-				}
-			}
-
-			// Collision with enemies
-			if (!remove) {
-				for (Enemy e : enemies) {
-					if (b.intersects(e)) {
-						e.updateHealth(1);
-						remove = true;
-						break;
-					}
-				}
-			}
-
-			if (!remove && b.disappear()) {
-				remove = true;
-			}
-			if (remove) {
-				bullets.remove(i);
-			} else {
-				b.moveBullet();
-				i++; // Only increment if not removed
-			}
-		}
-		// TODO: Add enemy movement
-		for (Enemy e : enemies) {
-			e.moveTowardPlayer(player, map, enemies);
-		}
+	private int getRefreshRate() {
+		int rate = getGraphicsConfiguration().getDevice().getDisplayMode().getRefreshRate();
+		return rate == DisplayMode.REFRESH_RATE_UNKNOWN ? DEFAULT_REFRESH_RATE : rate;
 	}
 
 	/**
-	 * Handles player movement using smooth multi-key input.
+	 * Copies the world into the next snapshot and hands it to the renderer.
+	 * Only called by whichever thread may currently step the world.
+	 *
+	 * @param alpha Fraction of a tick elapsed since the world's latest tick
 	 */
-	private void handleSmoothMovement() {
-		boolean up = keysPressed.contains(KeyEvent.VK_W);
-		boolean down = keysPressed.contains(KeyEvent.VK_S);
-		boolean left = keysPressed.contains(KeyEvent.VK_A);
-		boolean right = keysPressed.contains(KeyEvent.VK_D);
-
-		double dx = 0;
-		double dy = 0;
-
-		if (up) dy -= 1;
-		if (down) dy += 1;
-		if (left) dx -= 1;
-		if (right) dx += 1;
-
-		if (dx != 0 || dy != 0) {
-			double len = Math.sqrt(dx * dx + dy * dy);
-			dx = dx / len * player.getSpeed();
-			dy = dy / len * player.getSpeed();
-
-			// Determine facing direction based on movement vector
-			if (Math.abs(dx) > Math.abs(dy)) {
-				player.directionFacing = dx > 0 ? 2 : 1;
-			} else {
-				player.directionFacing = dy > 0 ? 4 : 3;
-			}
-
-			player.moveVector(dx, dy, panW, panH);
-		}
-
-		// Prevent player from moving through obstacles
-		map.blockPlayer(player, player.getDirectionFacing());
-		player.syncPosition();
+	private void publishSnapshot(double alpha) {
+		long tickTime = System.nanoTime() - (long) (alpha * GameWorld.TICK_MS * 1_000_000L);
+		snapshots.getWriteBuffer().capture(world, tickTime);
+		snapshots.publish();
 	}
 
 	/**
-	 * Handles cleanup of offscreen/dead objects.
+	 * Requests that the latest snapshot is drawn. Safe to call from any thread;
+	 * at most one frame is waiting at a time. With active rendering the render
+	 * thread is woken to draw and show it, otherwise it is queued on the event
+	 * thread for the Swing panel.
 	 */
-	private void aliveDead() {
-		// Remove off-screen bullets
-		for (int i = bullets.size() - 1; i >= 0; i--) {
-			if (bullets.get(i).disappear()) {
-				bullets.remove(i);
-			}
-		}
-
-		// Remove dead enemies and update score
-		for (int i = enemies.size() - 1; i >= 0; i--) {
-			if (!enemies.get(i).isAlive()) {
-				enemies.remove(i);
-				score.updateScore(10);
+	private void redraw() {
+		if (framePending.compareAndSet(false, true)) {
+			if (renderThread != null) {
+				LockSupport.unpark(renderThread);
+			} else {
+				SwingUtilities.invokeLater(() -> {
+					framePending.set(false);
+					presentFrame();
+				});
 			}
 		}
 	}
 
 	/**
-	 * Check if player collects any power-up items
+	 * Draws a frame whenever one is requested, until interrupted. Runs on the
+	 * render thread with active rendering.
 	 */
-	private void checkPowerUpPickup() {
-		for (int i = powerUpItems.size() - 1; i >= 0; i--) {
-			PowerUpItem item = powerUpItems.get(i);
-			if (player.intersects(item)) {
-				player.addPowerUp(item.getPowerUp(), item.getImage());
-				powerUpItems.remove(i);
+	private void renderLoop() {
+		while (!Thread.currentThread().isInterrupted()) {
+			if (framePending.getAndSet(false)) {
+				presentFrame();
+			} else {
+				LockSupport.park(this);
 			}
 		}
 	}
 
-	private void checkHealPickup() {
-		for (int i = healItems.size() - 1; i >= 0; i--) {
-			HealItem item = healItems.get(i);
-			if (player.intersects(item)) {
-				player.addHeal(item.getHeal(), item.getImage());
-				healItems.remove(i);
+	/**
+	 * Stops the render thread before the canvas and its buffers go away.
+	 */
+	@Override
+	public void dispose() {
+		Thread t = renderThread;
+		if (t != null && t != Thread.currentThread()) {
+			t.interrupt();
+			boolean interrupted = false;
+			while (t.isAlive()) {
+				try {
+					t.join();
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
 			}
+			if (interrupted) Thread.currentThread().interrupt();
 		}
+		super.dispose();
 	}
 
 	/**
-	 * Spawn power-ups on random walkable tiles
+	 * Redraws the whole screen rather than only the areas that changed; used
+	 * when overlays such as the pause menu change. Event thread only.
 	 */
-	private void spawnPowerUps() {
-		powerUpItems.clear();
-		java.util.List<Rectangle> tiles = map.getWalkableTiles();
-
-		if (tiles.isEmpty()) {
-			return;
-		}
-
-		Random rand = new Random();
-		int size = map.getTileSize() / 2;
-
-		Rectangle tile1 = tiles.get(rand.nextInt(tiles.size()));
-		Rectangle tile2 = tiles.get(rand.nextInt(tiles.size()));
-
-		int x1 = tile1.x + (tile1.width - size) / 2;
-		int y1 = tile1.y + (tile1.height - size) / 2;
-		int x2 = tile2.x + (tile2.width - size) / 2;
-		int y2 = tile2.y + (tile2.height - size) / 2;
-
-		int duration = 1000; // 10 seconds at 10ms per tick
-		powerUpItems.add(new PowerUpItem(x1, y1, size, new Shotgun(duration), shotgunIcon, java.awt.Color.BLUE));
-		powerUpItems.add(new PowerUpItem(x2, y2, size, new SpeedBoost(duration, 3), speedIcon, java.awt.Color.YELLOW));
+	private void redrawAll() {
+		repaintAll = true;
+		redraw();
 	}
 
-	private void spawnHeals() {
-		healItems.clear();
-		java.util.List<Rectangle> tiles = map.getWalkableTiles();
-
-		if (tiles.isEmpty()) {
+	/**
+	 * Draws the latest snapshot. Active rendering always draws whole frames.
+	 * The Swing panel only repaints the areas where sprites moved or a HUD
+	 * value changed, falling back to a full repaint when the whole scene changes.
+	 */
+	private void presentFrame() {
+		RenderSnapshot next = snapshots.acquire();
+		double tickNanos = GameWorld.TICK_MS * 1_000_000.0;
+		frameAlpha = Math.min(1, (System.nanoTime() - next.getTimeNanos()) / tickNanos);
+		worldBufferStale = true;
+
+		if (canvas != null) {
+			current = next;
+			shownWaveInProgress = next.isWaveInProgress();
+			long paintStart = profiler.start();
+			canvas.renderFrame();
+			profiler.record(TickProfiler.Phase.PAINT, paintStart);
 			return;
 		}
 
-		Random rand = new Random();
-		int size = map.getTileSize() / 2;
-
-		Rectangle tile1 = tiles.get(rand.nextInt(tiles.size()));
-		Rectangle tile2 = tiles.get(rand.nextInt(tiles.size()));
-
-		int x1 = tile1.x + (tile1.width - size) / 2;
-		int y1 = tile1.y + (tile1.height - size) / 2;
-		int x2 = tile2.x + (tile2.width - size) / 2;
-		int y2 = tile2.y + (tile2.height - size) / 2;
-
-		healItems.add(new HealItem(x1, y1, size, new Bandage(), bandageIcon, java.awt.Color.WHITE));
-		healItems.add(new HealItem(x2, y2, size, new ShieldPotion(), shieldIcon, java.awt.Color.WHITE));
+		int width = draw.getWidth();
+		int height = draw.getHeight();
+		// Same layout as renderFrame
+		double scale = Math.min(width / (double) GAME_WIDTH, height / (double) GAME_HEIGHT);
+		int transX = (width - (int) (GAME_WIDTH * scale)) / 2;
+		int transY = (height - (int) (GAME_HEIGHT * scale)) / 2;
+
+		// Sprites are repainted where they were last frame and where they are now
+		DirtyRegions swap = lastSpriteRegions;
+		lastSpriteRegions = spriteRegions;
+		spriteRegions = swap;
+		spriteRegions.clear();
+		if (renderQuality == RenderQuality.SCALED) {
+			spriteRegions.setTransform(scale, (int) (transX / scale), (int) (transY / scale));
+		} else {
+			spriteRegions.setTransform(scale, transX / scale, transY / scale);
+		}
+		next.addSpriteBounds(spriteRegions);
+
+		dirty.clear();
+		if (repaintAll || paused || debugDirty != shownDebugDirty || profiler.isOverlayVisible()
+				|| usernameInput.isVisible() || width != shownWidth || height != shownHeight
+				|| next.getMap() != shownMap || next.isWaveInProgress() != shownWaveInProgress) {
+			dirty.markFull();
+		} else {
+			dirty.addAll(lastSpriteRegions);
+			dirty.addAll(spriteRegions);
+			if (hud.isStatusStale(next)) dirty.add(hud.getStatusBounds());
+			if (hud.isScoreStale(next)) dirty.add(hud.getScoreBounds());
+			if (next.getDamageEffectAlpha() != shownDamageAlpha) {
+				int b = 50; // thickness of the damage border
+				dirty.add(0, 0, width, b);
+				dirty.add(0, height - b, width, b);
+				dirty.add(0, b, b, height - 2 * b);
+				dirty.add(width - b, b, b, height - 2 * b);
+			}
+		}
+
+		current = next;
+		repaintAll = false;
+		shownDebugDirty = debugDirty;
+		shownMap = next.getMap();
+		shownWaveInProgress = next.isWaveInProgress();
+		shownDamageAlpha = next.getDamageEffectAlpha();
+		shownWidth = width;
+		shownHeight = height;
+		debugFrame++;
+
+		// One sample for the whole frame, however many areas it repaints
+		long paintStart = profiler.start();
+		if (dirty.isFull()) {
+			draw.paintImmediately(0, 0, width, height);
+		} else {
+			for (int i = 0; i < dirty.size(); i++) {
+				draw.paintImmediately(dirty.get(i));
+			}
+		}
+		profiler.record(TickProfiler.Phase.PAINT, paintStart);
 	}
 
-	private void dealDamage() {
-		int num, cooldown;
-
-		for (Enemy enemy : enemies) {
-			/*
-			 * If enemy is intersecting player, check for enemy's damage cooldown time.
-			 * If the cooldown is at 0, player takes damage and the cooldown is reset. Otherwise, the enemy's cooldown counts down.
-			 * Reset the enemy if it stops touching the player
-			 */
-			num = enemy.getNum();
-
-			if (enemyDamageCooldown.containsKey(enemy.getNum())) {
-				cooldown = enemyDamageCooldown.get(enemy.getNum());
-			}
-			else {
-				cooldown = 0;
-			}
-
-			if (enemy.intersects(player)) {
-				if (cooldown == 0) {
-					player.updateHealth(1);
-					enemyDamageCooldown.put(num, DAMAGE_RATE);
-				} else {
-					enemyDamageCooldown.put(num, cooldown - 1);
-				}
-			} else {
-				enemyDamageCooldown.put(num, 0);
-			}
+	/**
+	 * Copies the currently held movement keys into the input frame.
+	 */
+	private void updateHeldKeys() {
+		synchronized (input) {
+			input.up = keysPressed.contains(KeyEvent.VK_W);
+			input.down = keysPressed.contains(KeyEvent.VK_S);
+			input.left = keysPressed.contains(KeyEvent.VK_A);
+			input.right = keysPressed.contains(KeyEvent.VK_D);
 		}
 	}
 
@@ -383,40 +395,50 @@ public class Main extends JFrame implements ActionListener, KeyListener {
 	 */
 	@Override
 	public void keyPressed(KeyEvent e) {
-		if (!waveInProgress && !paused &&
+		if (e.getKeyCode() == KeyEvent.VK_F3) {
+			profiler.toggleOverlay();
+			redrawAll();
+			return;
+		}
+		if (e.getKeyCode() == KeyEvent.VK_F4) {
+			debugDirty = !debugDirty;
+			redrawAll();
+			return;
+		}
+
+		if (!shownWaveInProgress && !paused &&
 				(e.getKeyCode() == KeyEvent.VK_W ||
 						e.getKeyCode() == KeyEvent.VK_A ||
 						e.getKeyCode() == KeyEvent.VK_S ||
 						e.getKeyCode() == KeyEvent.VK_D)) {
-			waveInProgress = true;
-			// Ensure no stray bullets from the previous wave carry
-			// over when the new wave begins
-			bullets.clear();
 			// Reset any held movement keys so the player does not
 			// move immediately when the wave starts
 			keysPressed.clear();
-			timer.start();
-			player.x = (GAME_WIDTH - 70) / 2;
-			player.y = (GAME_WIDTH - 70) / 2;
+			synchronized (input) {
+				input.clear();
+				input.startWave = true; // Started by the next tick
+			}
+			loop.start();
 			return;
 		}
 
 		if (e.getKeyCode() == KeyEvent.VK_L && !paused) {
-			timer.stop();
+			loop.stop();
 			SoundPlayer.pauseBackground();
 			paused = true;
-			repaint();
+			redrawAll();
 			return;
 		} else if (e.getKeyCode() == KeyEvent.VK_L && paused && resume) {
 			paused = false;
-			if (waveInProgress) {
-				timer.start();
+			if (world.isWaveInProgress()) {
+				loop.start();
 			}
 			SoundPlayer.resumeBackground();
-			repaint();
+			redrawAll();
 			return;
 		} else if (e.getKeyCode() == KeyEvent.VK_L && paused) {
-			SoundPlayer.stopBackground();
+			loop.stop();
+			// The menu's music crossfades from the game track
 			this.dispose();
 			new Homepage();
 			return;
@@ -425,43 +447,45 @@ public class Main extends JFrame implements ActionListener, KeyListener {
 		if (paused) {
 			if (e.getKeyCode() == KeyEvent.VK_W && !resume) {
 				resume = true;
-				repaint();
+				redrawAll();
 			} else if (e.getKeyCode() == KeyEvent.VK_S && resume) {
 				resume = false;
-				repaint();
+				redrawAll();
 			}
 			return;
 		}
 
 
-		// Fire bullet only once per press
-		if (e.getKeyCode() == KeyEvent.VK_U && !keysPressed.contains(KeyEvent.VK_U)) {
-			bullets.addAll(player.shoot());
-		}
-		// Track the U key so holding it down doesn't repeatedly fire
-		if (e.getKeyCode() == KeyEvent.VK_U) {
-			keysPressed.add(KeyEvent.VK_U);
-		}
+		synchronized (input) {
+			// Fire bullet only once per press
+			if (e.getKeyCode() == KeyEvent.VK_U && !keysPressed.contains(KeyEvent.VK_U)) {
+				input.fire = true;
+			}
 
-		if (e.getKeyCode() == KeyEvent.VK_I) {
-			player.usePowerUp(SpeedBoost.class);
-		}
+			if (e.getKeyCode() == KeyEvent.VK_I) {
+				input.useSpeedBoost = true;
+			}
 
-		if (e.getKeyCode() == KeyEvent.VK_O) {
-			player.usePowerUp(Shotgun.class);
-		}
+			if (e.getKeyCode() == KeyEvent.VK_O) {
+				input.useShotgun = true;
+			}
 
-		if (e.getKeyCode() == KeyEvent.VK_J) {
-			player.useHeal(Bandage.class);
-		}
+			if (e.getKeyCode() == KeyEvent.VK_J) {
+				input.useBandage = true;
+			}
 
-		if (e.getKeyCode() == KeyEvent.VK_K) {
-			player.useHeal(ShieldPotion.class);
+			if (e.getKeyCode() == KeyEvent.VK_K) {
+				input.useShieldPotion = true;
+			}
+		}
+		// Track the U key so holding it down doesn't repeatedly fire
+		if (e.getKeyCode() == KeyEvent.VK_U) {
+			keysPressed.add(KeyEvent.VK_U);
 		}
 
 		if (e.getKeyCode() == KeyEvent.VK_W || e.getKeyCode() == KeyEvent.VK_A || e.getKeyCode() == KeyEvent.VK_S || e.getKeyCode() == KeyEvent.VK_D) {
 			keysPressed.add(e.getKeyCode());
-			player.setMoving(true);
+			updateHeldKeys();
 		}
 	}
 
@@ -471,6 +495,7 @@ public class Main extends JFrame implements ActionListener, KeyListener {
 	@Override
 	public void keyReleased(KeyEvent e) {
 		keysPressed.remove(e.getKeyCode());
+		updateHeldKeys();
 	}
 
 	/**
@@ -480,125 +505,164 @@ public class Main extends JFrame implements ActionListener, KeyListener {
 	public void keyTyped(KeyEvent e) {}
 
 	/**
-	 * Timer tick
+	 * Fixed logic step, called by the game loop on the simulation thread
 	 */
-	@Override
-	public void actionPerformed(ActionEvent e) {
-
-
-		if (!player.isAlive()) {
+	private void tick() {
 
+		if (world.isGameOver()) {
 			SoundPlayer.stopBackground();
 			SoundPlayer.playSound("GameOver.wav");
-			timer.stop();
-			player.deactivateAllPowerUps();
-			HighscoreManager.addScore(username, score.getScore());
-			DeathScreen deathScreen = new DeathScreen();
-			deathScreen.setResult(username, score.getScore());
-			this.dispose();
+			loop.stop();
+			world.getPlayer().deactivateAllPowerUps();
+			int finalScore = world.getScore();
+			HighscoreManager.addScore(username, finalScore);
+			SwingUtilities.invokeLater(() -> {
+				DeathScreen deathScreen = new DeathScreen();
+				deathScreen.setResult(username, finalScore);
+				this.dispose();
+			});
 			return;
 		}
 
-		//Set moving for animation
-		if (keysPressed.isEmpty()) {
-			player.setMoving(false);
+		synchronized (input) {
+			tickInput.set(input);
+			input.clearActions();
 		}
+		boolean waveWasInProgress = world.isWaveInProgress() || tickInput.startWave;
+		world.step(tickInput);
 
-
-		//Set frame for animation
-		COUNTER++;
-		if (COUNTER == FRAME_REFRESH_RATE) {
-			player.changeFrame();
-
-			for (Enemy en : enemies) {
-				en.changeFrame();
+		// Boss waves pause the game until the player moves again
+		if (waveWasInProgress && !world.isWaveInProgress()) {
+			loop.stop();
+			// Clear any held keys so the next wave starts
+			// only on a deliberate movement input
+			synchronized (input) {
+				input.clear();
 			}
-
-			COUNTER = 0;
+			SwingUtilities.invokeLater(keysPressed::clear);
+			publishSnapshot(0);
+			redraw();
 		}
+	}
 
-		dealDamage();
-		aliveDead();
-		checkPowerUpPickup();
-		checkHealPickup();
-		player.updatePowerUps();
-		// Fade out damage visual effect
-		player.tickDamageEffect(TIMESPEED);
-
-
-		// Spawn enemies for current wave
-		if (waveInProgress && enemiesSpawnedThisWave < enemiesToSpawn) {
-			int entranceIndex = enemyNums % 4;
-			int enemySize = 75;
-
-			// Track how many enemies have spawned at this entrance so far
-			int count = entranceSpawnCounts.getOrDefault(entranceIndex, 0);
-
-			// Get the base spawn location for the entrance
-			Rectangle baseSpawn = map.getClearSpawnPoint(entranceIndex, enemySize);
-
-			// Offset spacing per enemy so they don't stack
-			int spacing = 80;
-			int spawnX = baseSpawn.x;
-			int spawnY = baseSpawn.y;
+	/**
+	 * Draws the world and HUD for the current frame.
+	 *
+	 * @param g      Graphics to draw into
+	 * @param width  Width of the drawing surface
+	 * @param height Height of the drawing surface
+	 */
+	private void renderFrame(Graphics2D g, int width, int height) {
+		g2 = g;
+		g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+		// Swing may paint before the first frame is presented
+		if (current == null) current = snapshots.acquire();
+		RenderSnapshot snapshot = current;
+		MapGenerator map = snapshot.getMap();
+		int wave = snapshot.getWave();
+		double renderAlpha = frameAlpha;
+
+		// Scale the game world to always fit inside the panel
+		double scale = Math.min(width / (double) GAME_WIDTH,
+				height / (double) GAME_HEIGHT);
+		int worldW = (int) (GAME_WIDTH * scale);
+		int worldH = (int) (GAME_HEIGHT * scale);
+		int transX = (width - worldW) / 2;
+		int transY = (height - worldH) / 2;
+		xOffset = (int) (transX / scale);
+		yOffset = (int) (transY / scale);
+
+		if (renderQuality == RenderQuality.SCALED) {
+			// Draw background and obstacles from the cached, pre-scaled layer
+			mapLayer.draw(g2, map, scale, transX, transY);
 
-			// Adjust position depending on entrance orientation
-			switch (entranceIndex) {
-				case 0, 1 -> spawnX += count * spacing; // top or bottom = offset X
-				case 2, 3 -> spawnY += count * spacing; // left or right = offset Y
-			}
+			java.awt.geom.AffineTransform oldTransform = g2.getTransform();
+			// Only scale the world - offsets handle centering
+			g2.scale(scale, scale);
 
-			// Update the count in the map
-			entranceSpawnCounts.put(entranceIndex, count + 1);
+			// Draw pickups, bullets, the player and enemies
+			snapshot.drawWorld(g2, xOffset, yOffset, renderAlpha);
 
-			// Create the enemy
-			if (wave % 5 == 0) {
-				enemies.add(new BossEnemy(spawnX, spawnY, enemySize, enemySize, enemyNums, wave));
-			} else {
-				enemies.add(new BasicEnemy(spawnX, spawnY, enemySize, enemySize, 2.5, enemyNums, GAME_WIDTH, GAME_HEIGHT));
+			// Reset transform so HUD elements remain constant size
+			g2.setTransform(oldTransform);
+		} else {
+			// Draw the world at its native size once per frame, then upscale it in one blit
+			if (worldBufferStale || worldBuffer == null) {
+				renderWorldBuffer(g2, snapshot, renderAlpha);
 			}
-			enemyNums++;
-			enemiesSpawnedThisWave++;
+			Object oldInterpolation = g2.getRenderingHint(RenderingHints.KEY_INTERPOLATION);
+			g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, renderQuality == RenderQuality.NEAREST
+					? RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR
+					: RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			g2.drawImage(worldBuffer, transX, transY, worldW, worldH, null);
+			if (oldInterpolation != null) g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, oldInterpolation);
 		}
 
+		// Hearts, shields, inventory, score and wave from the cached HUD images
+		int waveX = transX + worldW + 20;
+		int waveY = transY + (int)(200 * scale);
+		hud.draw(g2, snapshot, width, height, waveX, waveY);
 
-		// End the wave setup when done
-		if (enemiesSpawnedThisWave == enemiesToSpawn && enemies.size() == 0) {
-			if (wave % 5 == 0) {
-				timer.stop();
-				waveInProgress = false;
-				// Clear any held keys so the next wave starts
-				// only on a deliberate movement input
-				keysPressed.clear();
-			}
+		g2.setFont(hud.getFont(80));
+		g2.setColor(Color.WHITE);
+		if (!snapshot.isWaveInProgress()) {
+			g2.drawImage(pauseBackground, transX, transY, worldW, worldH, null);
+			if (wave == 1) g2.drawString("Move Joystick to Begin", transX + (int)(250 * scale), transY + (int)(450 * scale));
+			else g2.drawString("Wave " + (wave-1) + " Completed, Move Joystick to Continue", transX + (int)(50 * scale), transY + (int)(450 * scale));
+		}
 
-			wave++;
-			// Remove any bullets still on screen so they do not
-			// persist into the next wave
-			bullets.clear();
-			map.updateLevel(wave);
+		if (paused) {
+			g2.drawImage(pauseBackground, transX, transY, worldW, worldH, null);
+			g2.setColor(Color.WHITE);
+			g2.drawString("Paused", transX + (int)(380 * scale), transY + (int)(400 * scale));
 
-			if (wave % 5 == 0) {
-				enemiesToSpawn = (wave / 5);
+			if (resume) {
+				g2.setColor(Color.WHITE);
+				g2.drawString("Resume", transX + (int)(380 * scale), transY + (int)(500 * scale));
+				g2.setColor(Color.GRAY);
+				g2.drawString("Exit", transX + (int)(380 * scale), transY + (int)(550 * scale));
 			} else {
-				enemiesToSpawn = wave + 1;
-			}
-			enemiesSpawnedThisWave = 0;
-			entranceSpawnCounts.clear();
-
-			if (wave % 5 == 1) {
-				map = new MapGenerator(10, 10, 75, (wave / 5) + 1);
+				g2.setColor(Color.GRAY);
+				g2.drawString("Resume", transX + (int)(380 * scale), transY + (int)(500 * scale));
+				g2.setColor(Color.WHITE);
+				g2.drawString("Exit", transX + (int)(380 * scale), transY + (int)(550 * scale));
 			}
+		}
 
-			if (wave >= 3 && wave % 3 == 0) {
-				spawnPowerUps();
-				spawnHeals();
-			}
+		// Semi-transparent red border when taking damage
+		int alpha = snapshot.getDamageEffectAlpha();
+		if (alpha > 0) {
+			Composite oldC = g2.getComposite();
+			g2.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha / 255f));
+			g2.setColor(Color.RED);
+			int b = 50; // thickness of border
+			g2.fillRect(0, 0, width, b); // top
+			g2.fillRect(0, height - b, width, b); // bottom
+			g2.fillRect(0, b, b, height - 2 * b); // left
+			g2.fillRect(width - b, b, b, height - 2 * b); // right
+			g2.setComposite(oldC);
 		}
 
-		handleSmoothMovement();
-		move();
-		repaint();
+		profiler.drawOverlay(g2, width);
+	}
+
+	/**
+	 * Draws the map and everything on it 1:1 into the native-size world
+	 * buffer. The art is pixel-based, so no antialiasing is used.
+	 */
+	private void renderWorldBuffer(Graphics2D target, RenderSnapshot snapshot, double alpha) {
+		if (worldBuffer == null) {
+			// A compatible image matches the screen format so Java2D can cache it in VRAM
+			worldBuffer = target.getDeviceConfiguration().createCompatibleImage(GAME_WIDTH, GAME_HEIGHT, Transparency.OPAQUE);
+		}
+		Graphics2D g = worldBuffer.createGraphics();
+		try {
+			mapLayer.draw(g, snapshot.getMap(), 1, 0, 0);
+			snapshot.drawWorld(g, 0, 0, alpha);
+		} finally {
+			g.dispose();
+		}
+		worldBufferStale = false;
 	}
 
 	/**
@@ -617,185 +681,17 @@ public class Main extends JFrame implements ActionListener, KeyListener {
 		@Override
 		protected void paintComponent(Graphics g) {
 			super.paintComponent(g);
-			g2 = (Graphics2D) g;
-			g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-
-			// Scale the game world to always fit inside the panel
-			double scale = Math.min(getWidth() / (double) GAME_WIDTH,
-					getHeight() / (double) GAME_HEIGHT);
-			int worldW = (int) (GAME_WIDTH * scale);
-			int worldH = (int) (GAME_HEIGHT * scale);
-			int transX = (getWidth() - worldW) / 2;
-			int transY = (getHeight() - worldH) / 2;
-			xOffset = (int) (transX / scale);
-			yOffset = (int) (transY / scale);
-
-			java.awt.geom.AffineTransform oldTransform = g2.getTransform();
-			// Only scale the world - offsets handle centering
-			g2.scale(scale, scale);
-
-
-			// Draw background
-			g2.drawImage(background, xOffset, yOffset, null);
-
-			// Draw obstacles
-			for (Rectangle tile : map.getObstacles()) {
-				g2.drawImage(obstacle, tile.x + xOffset, tile.y + yOffset, null);
-			}
-
-			// Draw power-ups
-			for (PowerUpItem item : powerUpItems) {
-				item.draw(g2, xOffset, yOffset);
-			}
-			// Draw heals
-			for (HealItem item : healItems) {
-				item.draw(g2, xOffset, yOffset);
-			}
-
-			// Draw bullets
-			for (Bullet b : bullets) {
-				b.draw(g2, xOffset, yOffset);
-			}
-
-			// Draw player
-			player.drawCharacter(g2, xOffset, yOffset);
-
-			//Draw Enemies
-			for (Enemy e : enemies) {
-				e.drawCharacter(g2, xOffset, yOffset);
-			}
-
-			// Reset transform so HUD elements remain constant size
-			g2.setTransform(oldTransform);
+			renderFrame((Graphics2D) g, getWidth(), getHeight());
 
-			int barLength = 150;
-			int spacing = 20; // space between bars
-
-			int barY = getHeight() / 10; // Fixed top margin for HUD
-			int bar1X = 20; // left margin for HUD elements
-			int bar2X = bar1X;
-
-			int heartBaseSize = 0;
-			int heartsHeight = 0;
-			int shieldSize = 0;
-			int shieldY = barY; // initialized for scope
-			if (heartsSheet != null) {
-				int rowHeight = heartsSheet.getHeight() / 5;
-				int rowWidth = heartsSheet.getWidth();
-				int destW = barLength;
-				heartBaseSize = (int) ((rowHeight / (double) rowWidth) * destW);
-
-				// Scale hearts slightly larger so they visually match shields
-				double HEART_SCALE = 1.3;
-				heartsHeight = (int) (heartBaseSize * HEART_SCALE);
-				int heartsWidth = (int) (destW * HEART_SCALE);
-
-				// Draw heart-based health indicator
-				int heartsX = bar1X;
-				int heartsY = barY;
-				int rowIndex = Math.max(0, Math.min(4, 5 - player.getHealth()));
-				g2.drawImage(heartsSheet, heartsX + 50, heartsY, heartsX + heartsWidth + 50, heartsY + heartsHeight,
-						0, rowIndex * rowHeight, rowWidth, (rowIndex + 1) * rowHeight, null);
-
-				// Draw shield icons at base size
-				shieldSize = heartBaseSize;
-				int shieldX = bar2X;
-				shieldY = barY + heartsHeight + spacing;
-				for (int i = 0; i < 5; i++) {
-					BufferedImage img = i < player.getShield() ? shieldFull : shieldEmpty;
-					g2.drawImage(img, shieldX + i * shieldSize + 72, shieldY - 10, shieldSize, shieldSize, null);
-				}
-			}
-
-			// Draw power-up and heal inventory
-			int iconSize = 60;
-			int invY = shieldY + shieldSize + spacing + 40;
-
-			int speedCount = 0, shotgunCount = 0;
-			boolean speedActive = false, shotgunActive = false;
-			int speedRemain = 0, shotgunRemain = 0;
-			for (Player.InventoryPowerUp ip : player.getPowerUps()) {
-				if (ip.powerUp instanceof SpeedBoost) {
-					speedCount++;
-					if (ip.active) { speedActive = true; speedRemain = ip.remaining; }
-				} else if (ip.powerUp instanceof Shotgun) {
-					shotgunCount++;
-					if (ip.active) { shotgunActive = true; shotgunRemain = ip.remaining; }
-				}
-			}
-
-			int bandageCount = 0, shieldPotionCount = 0;
-			for (Player.InventoryHeal ih : player.getHeals()) {
-				if (ih.heal instanceof Bandage) bandageCount++; else if (ih.heal instanceof ShieldPotion) shieldPotionCount++;
-			}
-
-			g2.setFont(customFont.deriveFont(Font.PLAIN, 50));
-			g2.setColor(Color.WHITE);
-			g2.drawString("Power-Ups", bar1X + 60, invY - 10);
-			int drawY = invY;
-			g2.drawImage(speedIcon, bar1X + 60, drawY, iconSize, iconSize, null);
-			g2.drawString("x" + speedCount, bar1X + iconSize + 45, drawY + iconSize - 5);
-			if (speedActive) g2.drawString(String.valueOf(speedRemain / 100), bar1X, drawY + iconSize + 15);
-
-			drawY += iconSize + 30;
-			g2.drawImage(shotgunIcon, bar1X + 60, drawY, iconSize, iconSize, null);
-			g2.drawString("x" + shotgunCount, bar1X + iconSize + 45, drawY + iconSize - 5);
-			if (shotgunActive) g2.drawString(String.valueOf(shotgunRemain / 100), bar1X, drawY + iconSize + 15);
-
-			drawY += iconSize + 40;
-			g2.drawString("Heals", bar1X + 60, drawY - 10);
-			g2.drawImage(bandageIcon, bar1X + 60, drawY, iconSize, iconSize, null);
-			g2.drawString("x" + bandageCount, bar1X + iconSize + 45, drawY + iconSize - 5);
-
-			drawY += iconSize + 30;
-			g2.drawImage(shieldIcon, bar1X + 60, drawY, iconSize, iconSize, null);
-			g2.drawString("x" + shieldPotionCount, bar1X + iconSize + 45, drawY + iconSize - 5);
-
-			int waveX = transX + worldW + 20;
-			int waveY = transY + (int)(200 * scale);
-
-			score.drawScore(g2, waveX, waveY-70);
-
-			g2.setFont(customFont.deriveFont(Font.PLAIN, 80));
-			g2.setColor(Color.WHITE);
-			g2.drawString("Wave " + wave, waveX, waveY + 80);
-
-			if (!waveInProgress) {
-				g2.drawImage(pauseBackground, transX, transY, worldW, worldH, null);
-				if (wave == 1) g2.drawString("Move Joystick to Begin", transX + (int)(250 * scale), transY + (int)(450 * scale));
-				else g2.drawString("Wave " + (wave-1) + " Completed, Move Joystick to Continue", transX + (int)(50 * scale), transY + (int)(450 * scale));
-			}
-
-			if (paused) {
-				g2.drawImage(pauseBackground, transX, transY, worldW, worldH, null);
-				g2.setColor(Color.WHITE);
-				g2.drawString("Paused", transX + (int)(380 * scale), transY + (int)(400 * scale));
-
-				if (resume) {
-					g2.setColor(Color.WHITE);
-					g2.drawString("Resume", transX + (int)(380 * scale), transY + (int)(500 * scale));
-					g2.setColor(Color.GRAY);
-					g2.drawString("Exit", transX + (int)(380 * scale), transY + (int)(550 * scale));
-				} else {
-					g2.setColor(Color.GRAY);
-					g2.drawString("Resume", transX + (int)(380 * scale), transY + (int)(500 * scale));
-					g2.setColor(Color.WHITE);
-					g2.drawString("Exit", transX + (int)(380 * scale), transY + (int)(550 * scale));
-				}
-			}
-
-			// Semi-transparent red border when taking damage
-			int alpha = player.getDamageEffectAlpha();
-			if (alpha > 0) {
-				Composite oldC = g2.getComposite();
-				g2.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, alpha / 255f));
-				g2.setColor(Color.RED);
-				int b = 50; // thickness of border
-				g2.fillRect(0, 0, getWidth(), b); // top
-				g2.fillRect(0, getHeight() - b, getWidth(), b); // bottom
-				g2.fillRect(0, b, b, getHeight() - 2 * b); // left
-				g2.fillRect(getWidth() - b, b, b, getHeight() - 2 * b); // right
-				g2.setComposite(oldC);
+			if (debugDirty) {
+				// Tint the repainted area in a colour that changes every frame
+				Rectangle clip = g.getClipBounds();
+				if (clip == null) clip = new Rectangle(0, 0, getWidth(), getHeight());
+				Color c = Color.getHSBColor((debugFrame % 12) / 12f, 1f, 1f);
+				g.setColor(new Color(c.getRed(), c.getGreen(), c.getBlue(), 60));
+				g.fillRect(clip.x, clip.y, clip.width, clip.height);
+				g.setColor(c);
+				g.drawRect(clip.x, clip.y, clip.width - 1, clip.height - 1);
 			}
 		}
 	}
@@ -811,33 +707,4 @@ public class Main extends JFrame implements ActionListener, KeyListener {
 			this.icon = icon;
 		}
 	}
-
-	private class Score {
-		//Score keeper
-		private int score;
-		private String name = "";
-
-		Score() {
-			this.score = 0;
-		}
-
-		public void setUsername(String name) {
-			this.name = name;
-		}
-
-		public int getScore() {
-			return score;
-		}
-
-		public void updateScore(int increase) {
-			score += increase;
-		}
-
-		public void drawScore(Graphics2D g, int x, int y) {
-			g.setFont(customFont.deriveFont(Font.PLAIN, 100));
-			g.drawString(name, x, y);
-			g.setFont(customFont.deriveFont(Font.PLAIN, 100));
-			g.drawString(String.valueOf(score), x, y + 50);
-		}
-	}
 }
\ No newline at end of file
@@ -15,6 +15,12 @@ public class MapGenerator {
     private final ArrayList<Rectangle> obstacles;  // List of randomly generated obstacle tiles
     private final ArrayList<Rectangle> entrances;  // Fixed entrance tiles for enemy spawning
     private final ArrayList<Rectangle> walls;
+    private final Random rand;                     // Source of obstacle placement
+
+    // Occupancy bitmap: one bit per tile, set if a wall or obstacle covers it.
+    // It spans the whole walled area, which can be larger than rows x cols.
+    private final int gridCols, gridRows;
+    private final long[] blocked;
 
     /**
      * Constructor initializes map properties and generates entrances + obstacles.
@@ -24,10 +30,24 @@ public class MapGenerator {
      * @param level    Current level number (affects difficulty).
      */
     public MapGenerator(int rows, int cols, int tileSize, int level) {
+        this(rows, cols, tileSize, level, new Random());
+    }
+
+    /**
+     * Constructor that places obstacles using the given random source, so a
+     * seeded generator always produces the same layout.
+     * @param rows     Number of rows in the grid.
+     * @param cols     Number of columns in the grid.
+     * @param tileSize Size of each tile in pixels.
+     * @param level    Current level number (affects difficulty).
+     * @param rand     Random source used for obstacle placement.
+     */
+    public MapGenerator(int rows, int cols, int tileSize, int level, Random rand) {
         this.rows = rows;
         this.cols = cols;
         this.tileSize = tileSize;
         this.level = level;
+        this.rand = rand;
         this.obstacles = new ArrayList<>();
         this.entrances = new ArrayList<>();
 
@@ -41,6 +61,19 @@ public class MapGenerator {
         walls.add(new Rectangle(525, 825, 375, 75));
         walls.add(new Rectangle(825, 525, 75, 375));
 
+        // Size the bitmap to cover both the tile grid and every wall
+        int maxX = cols * tileSize, maxY = rows * tileSize;
+        for (Rectangle wall : walls) {
+            maxX = Math.max(maxX, wall.x + wall.width);
+            maxY = Math.max(maxY, wall.y + wall.height);
+        }
+        gridCols = (maxX + tileSize - 1) / tileSize;
+        gridRows = (maxY + tileSize - 1) / tileSize;
+        blocked = new long[(gridCols * gridRows + 63) / 64];
+        for (Rectangle wall : walls) {
+            markBlocked(wall);
+        }
+
         // Calculate player spawn location (center of the grid)
         int centerX = cols / 2 * tileSize;
         int centerY = rows / 2 * tileSize;
@@ -71,7 +104,6 @@ public class MapGenerator {
      * Obstacle count scales with level (difficulty).
      */
     public void generateObstacles() {
-        Random rand = new Random();
         int maxObstacles = 5 * ((level % 5) + 1); // Increase obstacle count based on level
 
         // Determine the 2x2 center tile indices so we can block obstacle
@@ -101,11 +133,11 @@ public class MapGenerator {
             if (isEntranceOverlap || isNearEntrance(rect)) continue;
 
             // Skip if this tile would overlap any existing obstacle
-            boolean isObstacleOverlap = obstacles.stream().anyMatch(o -> o.intersects(rect));
-            if (isObstacleOverlap) continue;
+            if (isBlocked(c, r)) continue;
 
             // Safe to place obstacle
             obstacles.add(new Rectangle(rect.x, rect.y, tileSize, tileSize));
+            setBlocked(c, r);
         }
     }
 
@@ -158,37 +190,50 @@ public class MapGenerator {
 
     /**
      * Blocks player movement when intersecting with obstacle tiles.
+     * Only the tiles under the player's bounds are examined.
      * @param p         The player object
      * @param direction The direction the player is moving in
      */
     public void blockPlayer(Player p, int direction) {
-
-        for (Rectangle wall : walls) {
-            this.block(p, wall);
-        }
-
-        for (Rectangle tile : obstacles) {
-            if (isEntrance(tile)) continue;  // Skip blocking if tile is an entrance
-            this.block(p, tile);
+        int c0 = Math.max(0, Math.floorDiv(p.x, tileSize));
+        int c1 = Math.min(gridCols - 1, Math.floorDiv(p.x + p.width - 1, tileSize));
+        int r0 = Math.max(0, Math.floorDiv(p.y, tileSize));
+        int r1 = Math.min(gridRows - 1, Math.floorDiv(p.y + p.height - 1, tileSize));
+
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                if (isBlocked(c, r)) this.block(p, c, r);
+            }
         }
     }
 
-    private void block(Player p, Rectangle obstacle) {
-        if (!p.intersects(obstacle)) return;
-
-        int overlapX = Math.min(p.x + p.width, obstacle.x + obstacle.width) - Math.max(p.x, obstacle.x);
-        int overlapY = Math.min(p.y + p.height, obstacle.y + obstacle.height) - Math.max(p.y, obstacle.y);
+    private void block(Player p, int col, int row) {
+        int tx = col * tileSize, ty = row * tileSize;
+        // An earlier push may already have moved the player clear of this tile
+        if (p.x >= tx + tileSize || p.x + p.width <= tx || p.y >= ty + tileSize || p.y + p.height <= ty) return;
+
+        int overlapX = Math.min(p.x + p.width, tx + tileSize) - Math.max(p.x, tx);
+        int overlapY = Math.min(p.y + p.height, ty + tileSize) - Math.max(p.y, ty);
+        boolean horizontal = overlapX < overlapY;
+
+        // Never push into a neighbouring blocked tile. That edge is inside a
+        // longer wall, so the other axis is the real way out.
+        if (horizontal && isBlocked(p.x < tx ? col - 1 : col + 1, row)) {
+            horizontal = false;
+        } else if (!horizontal && isBlocked(col, p.y < ty ? row - 1 : row + 1)) {
+            horizontal = true;
+        }
 
-        if (overlapX < overlapY) {
+        if (horizontal) {
             // Horizontal collision
-            if (p.x < obstacle.x) {
+            if (p.x < tx) {
                 p.x -= overlapX;
             } else {
                 p.x += overlapX;
             }
         } else {
             // Vertical collision
-            if (p.y < obstacle.y) {
+            if (p.y < ty) {
                 p.y -= overlapY;
             } else {
                 p.y += overlapY;
@@ -196,6 +241,86 @@ public class MapGenerator {
         }
     }
 
+    /**
+     * Checks whether a tile is covered by a wall or obstacle.
+     * Tiles outside the map are never blocked.
+     * @param tileX Column of the tile
+     * @param tileY Row of the tile
+     * @return True if the tile is blocked
+     */
+    public boolean isBlocked(int tileX, int tileY) {
+        if (tileX < 0 || tileY < 0 || tileX >= gridCols || tileY >= gridRows) return false;
+        int bit = tileY * gridCols + tileX;
+        return (blocked[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    /**
+     * Checks whether a box overlaps any blocked tile. Only the tiles the box
+     * covers are examined and nothing is allocated.
+     * @return True if any covered tile is blocked
+     */
+    public boolean overlapsBlocked(int x, int y, int w, int h) {
+        if (w <= 0 || h <= 0) return false;
+        int c0 = Math.floorDiv(x, tileSize), c1 = Math.floorDiv(x + w - 1, tileSize);
+        int r0 = Math.floorDiv(y, tileSize), r1 = Math.floorDiv(y + h - 1, tileSize);
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                if (isBlocked(c, r)) return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Finds a blocked tile under a box and stores the solid area it belongs
+     * to in {@code out}. The area is grown along a straight run of blocked
+     * tiles, so a box touching a long wall sees the wall rather than a single
+     * tile edge.
+     * @param out Rectangle that receives the blocked area
+     * @return True if a blocked tile was found
+     */
+    public boolean findBlocked(int x, int y, int w, int h, Rectangle out) {
+        if (w <= 0 || h <= 0) return false;
+        int c0 = Math.floorDiv(x, tileSize), c1 = Math.floorDiv(x + w - 1, tileSize);
+        int r0 = Math.floorDiv(y, tileSize), r1 = Math.floorDiv(y + h - 1, tileSize);
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                if (!isBlocked(c, r)) continue;
+
+                // Grow along the row first, then the column if the row is a single tile
+                int left = c, right = c;
+                while (isBlocked(left - 1, r)) left--;
+                while (isBlocked(right + 1, r)) right++;
+                int top = r, bottom = r;
+                if (left == right) {
+                    while (isBlocked(c, top - 1)) top--;
+                    while (isBlocked(c, bottom + 1)) bottom++;
+                }
+                out.setBounds(left * tileSize, top * tileSize,
+                        (right - left + 1) * tileSize, (bottom - top + 1) * tileSize);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Sets the bit for a single tile. */
+    private void setBlocked(int tileX, int tileY) {
+        int bit = tileY * gridCols + tileX;
+        blocked[bit >>> 6] |= 1L << bit;
+    }
+
+    /** Rasterizes a rectangle into the occupancy bitmap. */
+    private void markBlocked(Rectangle rect) {
+        int c1 = Math.min(gridCols - 1, (rect.x + rect.width - 1) / tileSize);
+        int r1 = Math.min(gridRows - 1, (rect.y + rect.height - 1) / tileSize);
+        for (int r = Math.max(0, rect.y / tileSize); r <= r1; r++) {
+            for (int c = Math.max(0, rect.x / tileSize); c <= c1; c++) {
+                setBlocked(c, r);
+            }
+        }
+    }
+
     /**
      * Checks if a given tile overlaps any of the entrances.
      * @param tile A rectangle tile to check.
@@ -224,6 +349,16 @@ public class MapGenerator {
         this.level = lvl;
     }
 
+    /** Returns the number of tile columns covered by the occupancy bitmap */
+    public int getGridCols() {
+        return gridCols;
+    }
+
+    /** Returns the number of tile rows covered by the occupancy bitmap */
+    public int getGridRows() {
+        return gridRows;
+    }
+
     /** Returns the tile size in pixels */
     public int getTileSize() {
         return tileSize;
@@ -0,0 +1,226 @@
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Plays background music by streaming it from the resource in small chunks
+ * on a background thread, so memory use doesn't depend on the length of the
+ * track and starting a track never blocks the caller. When the end of the
+ * file is reached it is reopened and writing carries on into the same
+ * buffer, so the loop has no gap.
+ * <p>
+ * Starting a track while another is playing crossfades between them: the
+ * old track fades out on its own thread while the new one fades in. The
+ * audio goes to a {@link SourceDataLine} per track, or to a stream voice of
+ * an {@link AudioMixer} when one is given.
+ */
+public class MusicStreamer {
+
+    /** Bytes decoded and written at a time. */
+    private static final int CHUNK_BYTES = 8 * 1024;
+    /** Audio buffered ahead of playback, which is also how late a fade can start. */
+    private static final int BUFFER_MS = 250;
+
+    private final float volume;
+    private Track current;
+
+    /**
+     * @param volume Volume scale between 0.0 (mute) and 1.0 (full volume)
+     */
+    public MusicStreamer(float volume) {
+        this.volume = volume;
+    }
+
+    /**
+     * Starts looping a track from the /res/Audio directory, fading out the
+     * track that is playing, if any.
+     *
+     * @param filename The audio file name
+     * @param mixer    Mixer to play through, or null to use a line of its own
+     * @param fadeMs   Length of the crossfade in milliseconds, 0 for a hard cut
+     */
+    public synchronized void play(String filename, AudioMixer mixer, int fadeMs) {
+        stop(fadeMs);
+        current = new Track(filename, mixer, volume, fadeMs);
+        Thread t = new Thread(current, "music-" + filename);
+        t.setDaemon(true);
+        t.start();
+    }
+
+    /**
+     * Stops the current track.
+     *
+     * @param fadeMs Length of the fade out in milliseconds, 0 to stop at once
+     */
+    public synchronized void stop(int fadeMs) {
+        if (current != null) {
+            current.stop(fadeMs);
+            current = null;
+        }
+    }
+
+    /** Pauses the current track, keeping its position. */
+    public synchronized void pause() {
+        if (current != null) current.setPaused(true);
+    }
+
+    /** Resumes a paused track. */
+    public synchronized void resume() {
+        if (current != null) current.setPaused(false);
+    }
+
+    /** One track being streamed by its own thread. */
+    private static class Track implements Runnable {
+        private final String filename;
+        private final AudioMixer mixer;
+        private final float volume;
+
+        // Gain ramp, applied per sample frame on the track's thread
+        private volatile float targetGain;
+        private volatile int fadeMs;
+        private float gain;
+
+        private volatile boolean stopping, paused;
+        private volatile boolean cut; // Stop at once, discarding buffered audio
+        private SourceDataLine line; // Line mode only
+        private AudioMixer.Stream stream; // Mixer mode only
+
+        Track(String filename, AudioMixer mixer, float volume, int fadeMs) {
+            this.filename = filename;
+            this.mixer = mixer;
+            this.volume = volume;
+            this.fadeMs = fadeMs;
+            this.targetGain = volume;
+            this.gain = fadeMs > 0 ? 0 : volume;
+        }
+
+        void stop(int fadeMs) {
+            this.fadeMs = fadeMs;
+            targetGain = 0;
+            stopping = true;
+            if (fadeMs <= 0) {
+                cut = true;
+                synchronized (this) {
+                    if (line != null) line.close(); // Also wakes a blocked write
+                    if (stream != null) mixer.stop(stream.getId());
+                }
+            }
+            setPaused(false); // A paused track would never get to fade out
+        }
+
+        synchronized void setPaused(boolean paused) {
+            if (this.paused == paused || cut) return;
+            this.paused = paused;
+            if (line != null) {
+                if (paused) line.stop();
+                else line.start();
+            }
+            if (stream != null) {
+                if (paused) mixer.pause(stream.getId());
+                else mixer.resume(stream.getId());
+            }
+        }
+
+        @Override
+        public void run() {
+            AudioInputStream in = null;
+            try {
+                in = open(filename);
+                AudioFormat format = in.getFormat();
+                synchronized (this) {
+                    if (cut) return;
+                    if (mixer != null) {
+                        stream = mixer.playStream(format, 1, BUFFER_MS);
+                        if (paused) mixer.pause(stream.getId());
+                    } else {
+                        line = AudioSystem.getSourceDataLine(format);
+                        line.open(format, (int) (format.getFrameRate() * BUFFER_MS / 1000) * format.getFrameSize());
+                        if (!paused) line.start();
+                    }
+                }
+
+                byte[] chunk = new byte[CHUNK_BYTES - CHUNK_BYTES % format.getFrameSize()];
+                boolean readAny = false;
+                while (!cut) {
+                    int n = in.read(chunk);
+                    if (n < 0) {
+                        if (!readAny) break; // Empty file: nothing to loop
+                        // Loop without draining, so playback runs straight on
+                        in.close();
+                        in = open(filename);
+                        readAny = false;
+                        continue;
+                    }
+                    if (n == 0) continue;
+                    readAny = true;
+                    applyGain(chunk, n, format);
+                    if (mixer != null) {
+                        if (!stream.write(chunk, 0, n)) break;
+                    } else {
+                        line.write(chunk, 0, n);
+                    }
+                    if (stopping && gain == 0) break; // Faded out
+                }
+                if (!cut) {
+                    if (stream != null) stream.end();
+                    if (line != null) line.drain();
+                }
+            } catch (IOException | LineUnavailableException | RuntimeException e) {
+                System.err.println("Error streaming background audio: " + filename);
+                e.printStackTrace();
+            } finally {
+                try {
+                    if (in != null) in.close();
+                } catch (IOException ignored) {
+                    // Nothing left to read from it anyway
+                }
+                synchronized (this) {
+                    if (line != null) line.close();
+                    if (stream != null && cut) mixer.stop(stream.getId());
+                }
+            }
+        }
+
+        /** Scales the chunk's samples, moving the gain towards its target frame by frame. */
+        private void applyGain(byte[] data, int length, AudioFormat format) {
+            float target = targetGain;
+            int fade = fadeMs;
+            int channels = format.getChannels();
+            // Ramp across the full volume range in fadeMs
+            float step = fade > 0 ? volume / (format.getFrameRate() * fade / 1000f) : Float.MAX_VALUE;
+            for (int frame = 0; frame < length; frame += format.getFrameSize()) {
+                if (gain < target) gain = Math.min(target, gain + step);
+                else if (gain > target) gain = Math.max(target, gain - step);
+                for (int c = 0; c < channels; c++) {
+                    int at = frame + c * 2;
+                    int s = (short) ((data[at + 1] << 8) | (data[at] & 0xff));
+                    s = Math.round(s * gain);
+                    data[at] = (byte) s;
+                    data[at + 1] = (byte) (s >> 8);
+                }
+            }
+        }
+
+        /** Opens the resource as 16-bit little-endian PCM. */
+        private static AudioInputStream open(String filename) throws IOException {
+            InputStream is = SoundPlayer.class.getResourceAsStream("/Audio/" + filename);
+            if (is == null) {
+                throw new IOException("Audio not found: /Audio/" + filename);
+            }
+            try {
+                AudioInputStream source = AudioSystem.getAudioInputStream(new BufferedInputStream(is));
+                AudioFormat format = SampleCache.pcm16(source.getFormat());
+                return source.getFormat().matches(format) ? source : AudioSystem.getAudioInputStream(format, source);
+            } catch (UnsupportedAudioFileException | IllegalArgumentException e) {
+                is.close();
+                throw new IOException("Unsupported audio: " + filename, e);
+            }
+        }
+    }
+}
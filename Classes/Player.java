@@ -1,7 +1,4 @@
-import java.awt.Color;
-import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
-import java.util.ArrayList;
 import java.util.LinkedList;
 
 /**
@@ -14,15 +11,10 @@ public class Player extends Character {
     private int panelWidth, panelHeight;  // Dimensions of the game panel
 
     // Character sprite images for different directions
-    private int frame;
-    private int spriteCol = 0;
-    private int spriteW = 75, spriteH = 75;
-    private boolean moving;
+    private static final SpriteSheet sprites = new SpriteSheet("PlayerIdle.png", "PlayerWalk.png", 75, 75);
     private boolean shotgun;
     private LinkedList<InventoryPowerUp> powerUps = new LinkedList<>();
     private LinkedList<InventoryHeal> heals = new LinkedList<>();
-    BufferedImage walkingSpriteSheet = ResourceLoader.loadImage("PlayerWalk.png");
-    BufferedImage idleSpriteSheet = ResourceLoader.loadImage("PlayerIdle.png");
 
     // --- Damage feedback fields ---
     /** Current alpha value for the damage screen effect */
@@ -50,12 +42,9 @@ public class Player extends Character {
         this.moving = false;
     }
 
-    public void changeFrame() {
-        frame = (frame + 1) % 2;
-    }
-
-    public void setMoving(boolean moving) {
-        this.moving = moving;
+    @Override
+    public SpriteSheet getSpriteSheet() {
+        return sprites;
     }
 
     /**
@@ -92,90 +81,43 @@ public class Player extends Character {
     }
 
     /**
-     * Draws the player image corresponding to their current facing direction.
-     *
-     * @param g2       Graphics2D object for drawing
-     * @param xOffset  X offset for camera or view translation
-     * @param yOffset  Y offset for camera or view translation
+     * Fires bullets into the projectile store based on the current weapon mode.
+     * If shotgun mode is active, five bouncing pellets are fired with slight
+     * angle offsets. Otherwise a single regular bullet is fired.
      */
-    @Override
-    public void drawCharacter(Graphics2D g2, int xOffset, int yOffset) {
-        switch (this.directionFacing) {
-            case 1:
-                spriteCol = 3;
-                break;
-            case 2:
-                spriteCol = 2;
-                break;
-            case 3:
-                spriteCol = 1;
-                break;
-            case 4:
-                spriteCol = 0;
-                break;
-        }
-
-        if (!moving) {
-            g2.drawImage(
-                    idleSpriteSheet,
-                    this.x + xOffset, this.y + yOffset,
-                    this.x + xOffset + spriteW, this.y + yOffset + spriteH,
-                    spriteCol*spriteW, frame*spriteH,
-                    spriteCol*spriteW+spriteW, (frame+1)*spriteH,
-                    null);
-        } else {
-            g2.drawImage(
-                    walkingSpriteSheet,
-                    this.x + xOffset, this.y + yOffset,
-                    this.x + xOffset + spriteW, this.y + yOffset + spriteH,
-                    spriteCol*spriteW, frame*spriteH,
-                    spriteCol*spriteW+spriteW, (frame+1)*spriteH,
-                    null);
-        }
-    }
-
-    /**
-     * Creates bullets based on the current weapon mode. If shotgun mode is
-     * active, multiple bouncing bullets are created with slight angle offsets.
-     * Otherwise a single regular bullet is returned.
-     */
-    public ArrayList<Bullet> shoot() {
-        ArrayList<Bullet> list = new ArrayList<>();
-
-        int bulletW = 20;
-        int bulletH = 20;
+    public void shoot(ProjectileSystem projectiles) {
+        int size = ProjectileSystem.SIZE;
 
         // Center the bullet on the player's current position
-        int bulletX = this.x + (this.width - bulletW) / 2;
-        int bulletY = this.y + (this.height - bulletH) / 2;
+        int bulletX = this.x + (this.width - size) / 2;
+        int bulletY = this.y + (this.height - size) / 2;
 
         if (shotgun) {
             SoundPlayer.playSound("Shotgun.wav");
-            double baseAngle = 0;
-            switch (this.directionFacing) {
-                case 1 -> baseAngle = Math.PI;
-                case 2 -> baseAngle = 0;
-                case 3 -> baseAngle = -Math.PI / 2;
-                case 4 -> baseAngle = Math.PI / 2;
-            }
-
-            int[] offsets = {-20, -10, 0, 10, 20};
-            for (int off : offsets) {
-                double angle = baseAngle + Math.toRadians(off);
-                BouncingBullet b = new BouncingBullet(bulletX, bulletY, bulletW, bulletH,
-                        panelWidth, panelHeight, this.directionFacing);
-                int vx = (int)Math.round(Math.cos(angle) * 8);
-                int vy = (int)Math.round(Math.sin(angle) * 8);
-                b.setSpeedX(vx);
-                b.setSpeedY(vy);
-                list.add(b);
+            int[] vx = PELLET_VX[directionFacing - 1];
+            int[] vy = PELLET_VY[directionFacing - 1];
+            for (int i = 0; i < vx.length; i++) {
+                projectiles.spawnPellet(bulletX, bulletY, vx[i], vy[i], directionFacing);
             }
         } else {
-            list.add(new Bullet(bulletX, bulletY, bulletW, bulletH, panelWidth, panelHeight, directionFacing));
+            projectiles.spawn(bulletX, bulletY, directionFacing);
             SoundPlayer.playSound("LaserGunshot.wav");
         }
+    }
 
-        return list;
+    // Shotgun pellet velocities per facing direction (1-4), worked out once
+    private static final int[] PELLET_OFFSETS = {-20, -10, 0, 10, 20};
+    private static final int[][] PELLET_VX = new int[4][PELLET_OFFSETS.length];
+    private static final int[][] PELLET_VY = new int[4][PELLET_OFFSETS.length];
+    static {
+        double[] baseAngles = {Math.PI, 0, -Math.PI / 2, Math.PI / 2}; // left, right, up, down
+        for (int d = 0; d < 4; d++) {
+            for (int i = 0; i < PELLET_OFFSETS.length; i++) {
+                double angle = baseAngles[d] + Math.toRadians(PELLET_OFFSETS[i]);
+                PELLET_VX[d][i] = (int) Math.round(Math.cos(angle) * ProjectileSystem.SPEED);
+                PELLET_VY[d][i] = (int) Math.round(Math.sin(angle) * ProjectileSystem.SPEED);
+            }
+        }
     }
 
     /** Adds a power-up with its icon to the player's inventory */
@@ -204,12 +146,15 @@ public class Player extends Character {
         }
     }
 
-    /** Updates active power-ups and handles expiration */
-    public void updatePowerUps() {
+    /**
+     * Updates active power-ups and handles expiration
+     * @param deltaMs milliseconds since last update
+     */
+    public void updatePowerUps(int deltaMs) {
         for (int i = powerUps.size() - 1; i >= 0; i--) {
             InventoryPowerUp ip = powerUps.get(i);
             if (ip.active) {
-                ip.remaining--;
+                ip.remaining -= deltaMs;
                 if (ip.remaining <= 0) {
                     ip.powerUp.deactivate(this);
                     powerUps.remove(i);
@@ -270,7 +215,7 @@ public class Player extends Character {
     public static class InventoryPowerUp {
         PowerUp powerUp;
         BufferedImage icon;
-        int remaining;
+        int remaining; // milliseconds left while active
         boolean active;
 
         InventoryPowerUp(PowerUp p, BufferedImage icon) {
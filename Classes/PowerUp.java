@@ -1,6 +1,9 @@
 public abstract class PowerUp {
-    protected int duration;
+    protected int duration; // milliseconds
 
+    /**
+     * @param duration how long the power-up lasts once activated, in milliseconds
+     */
     public PowerUp(int duration) {
         this.duration = duration;
     }
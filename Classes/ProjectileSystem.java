@@ -0,0 +1,294 @@
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+/**
+ * Stores every live bullet in parallel primitive arrays instead of one object
+ * per shot. Removing a bullet swaps the last one into its slot, so nothing is
+ * shifted, and the arrays only grow when more bullets are alive than ever
+ * before. Steady-state shooting therefore allocates nothing.
+ * <p>
+ * Regular bullets are simply bullets with no bounces left: they disappear on
+ * the first wall or obstacle they hit, while shotgun pellets bounce off a
+ * limited number of times first.
+ */
+public class ProjectileSystem {
+
+    /** Width and height of every bullet. */
+    public static final int SIZE = 20;
+    /** Speed of a bullet in pixels per tick. */
+    public static final int SPEED = 8;
+    /** Wall/obstacle bounces a shotgun pellet gets before it disappears. */
+    public static final int SHOTGUN_BOUNCES = 2;
+
+    // Sprite indices: directions 1-4 map to 0-3 for regular bullets and 4-7 for shotgun pellets
+    private static final int SHOTGUN_SPRITES = 4;
+    private static final BufferedImage[] sprites = loadSprites();
+
+    private final int panW, panH;   // Dimensions of the game panel (for bounds checking)
+
+    // Per-bullet state, valid for indices [0, count)
+    private int count;
+    private int[] x, y, vx, vy;
+    private int[] prevX, prevY;     // Position at the start of the current tick
+    private int[] bounces;          // Bounces left before the bullet disappears
+    private byte[] sprite;
+
+    // Scratch rectangles reused for collision queries
+    private final Rectangle probe = new Rectangle(0, 0, SIZE, SIZE);
+    private final Rectangle hitTile = new Rectangle();
+
+    /**
+     * @param panW Width of the area bullets may travel in
+     * @param panH Height of the area bullets may travel in
+     */
+    public ProjectileSystem(int panW, int panH) {
+        this.panW = panW;
+        this.panH = panH;
+        allocate(64);
+    }
+
+    /**
+     * Slices the bullet sprite sheet once and pairs it with the legacy shotgun
+     * images, so firing never creates image wrappers.
+     */
+    private static BufferedImage[] loadSprites() {
+        BufferedImage sheet = ResourceLoader.loadImage("BulletSprites.png");
+        int frameW = sheet.getWidth() / 4;
+        int frameH = sheet.getHeight();
+
+        BufferedImage[] images = new BufferedImage[8];
+        // Sheet columns are ordered down, up, right, left
+        images[0] = sheet.getSubimage(3 * frameW, 0, frameW, frameH); // left
+        images[1] = sheet.getSubimage(2 * frameW, 0, frameW, frameH); // right
+        images[2] = sheet.getSubimage(frameW, 0, frameW, frameH);     // up
+        images[3] = sheet.getSubimage(0, 0, frameW, frameH);          // down
+        // Legacy bullet images used for shotgun power-up
+        images[SHOTGUN_SPRITES] = ResourceLoader.loadImage("BulletLeft.png");
+        images[SHOTGUN_SPRITES + 1] = ResourceLoader.loadImage("BulletRight.png");
+        images[SHOTGUN_SPRITES + 2] = ResourceLoader.loadImage("BulletUp.png");
+        images[SHOTGUN_SPRITES + 3] = ResourceLoader.loadImage("BulletDown.png");
+        return images;
+    }
+
+    /**
+     * Fires a regular bullet travelling straight in the given direction.
+     *
+     * @param x         X-coordinate of the bullet's origin
+     * @param y         Y-coordinate of the bullet's origin
+     * @param direction Integer direction: 1=left, 2=right, 3=up, 4=down
+     */
+    public void spawn(int x, int y, int direction) {
+        int vx = 0, vy = 0;
+        switch (direction) {
+            case 1 -> vx = -SPEED;
+            case 2 -> vx = SPEED;
+            case 3 -> vy = -SPEED;
+            case 4 -> vy = SPEED;
+        }
+        add(x, y, vx, vy, 0, direction - 1);
+    }
+
+    /**
+     * Fires a bouncing shotgun pellet with an explicit velocity.
+     *
+     * @param direction Direction the player faced, used to pick the sprite
+     */
+    public void spawnPellet(int x, int y, int vx, int vy, int direction) {
+        add(x, y, vx, vy, SHOTGUN_BOUNCES, SHOTGUN_SPRITES + direction - 1);
+    }
+
+    private void add(int px, int py, int pvx, int pvy, int bounceCount, int spriteIndex) {
+        if (count == x.length) {
+            grow();
+        }
+        int i = count++;
+        x[i] = px;
+        y[i] = py;
+        prevX[i] = px;
+        prevY[i] = py;
+        vx[i] = pvx;
+        vy[i] = pvy;
+        bounces[i] = bounceCount;
+        sprite[i] = (byte) spriteIndex;
+    }
+
+    /**
+     * Moves every bullet one tick. Bullets that hit a wall or obstacle bounce or
+     * disappear, bullets that hit an enemy deal one damage and disappear, and
+     * bullets that left the panel are removed.
+     *
+     * @param map     Map providing the static occupancy bitmap
+     * @param enemies Broadphase grid holding every enemy
+     */
+    public void update(MapGenerator map, SpatialGrid<Enemy> enemies) {
+        for (int i = 0; i < count; ) {
+            boolean remove = false;
+
+            // Collision with obstacles and walls
+            if (map.findBlocked(x[i], y[i], SIZE, SIZE, hitTile)) {
+                remove = !bounce(i, hitTile);
+            }
+
+            // Collision with enemies
+            if (!remove) {
+                probe.setLocation(x[i], y[i]);
+                Enemy e = enemies.queryFirst(probe);
+                if (e != null) {
+                    e.updateHealth(1);
+                    remove = true;
+                }
+            }
+
+            if (!remove && isOffscreen(i)) {
+                remove = true;
+            }
+            if (remove) {
+                removeAt(i); // The last bullet now sits at i, so don't advance
+            } else {
+                x[i] += vx[i];
+                y[i] += vy[i];
+                i++;
+            }
+        }
+    }
+
+    /**
+     * Handles bouncing when bullet {@code i} collides with a wall or obstacle.
+     *
+     * @return {@code true} if the bullet should continue moving,
+     *         {@code false} if it has no bounces left
+     */
+    private boolean bounce(int i, Rectangle r) {
+        if (bounces[i] <= 0) {
+            return false;
+        }
+
+        int overlapX = Math.min(x[i] + SIZE, r.x + r.width) - Math.max(x[i], r.x);
+        int overlapY = Math.min(y[i] + SIZE, r.y + r.height) - Math.max(y[i], r.y);
+
+        if (overlapX <= overlapY) {
+            vx[i] = -vx[i];
+        }
+        if (overlapY <= overlapX) {
+            vy[i] = -vy[i];
+        }
+
+        bounces[i]--;
+        return true;
+    }
+
+    /** Removes bullets that have left the panel. */
+    public void removeOffscreen() {
+        for (int i = count - 1; i >= 0; i--) {
+            if (isOffscreen(i)) removeAt(i);
+        }
+    }
+
+    private boolean isOffscreen(int i) {
+        return x[i] < 0 || x[i] > panW || y[i] < 0 || y[i] > panH;
+    }
+
+    /** Removes bullet {@code i} by moving the last bullet into its slot. */
+    private void removeAt(int i) {
+        int last = --count;
+        x[i] = x[last];
+        y[i] = y[last];
+        prevX[i] = prevX[last];
+        prevY[i] = prevY[last];
+        vx[i] = vx[last];
+        vy[i] = vy[last];
+        bounces[i] = bounces[last];
+        sprite[i] = sprite[last];
+    }
+
+    /** Remembers every bullet's position as the start of the next tick. */
+    public void savePreviousPositions() {
+        System.arraycopy(x, 0, prevX, 0, count);
+        System.arraycopy(y, 0, prevY, 0, count);
+    }
+
+    /**
+     * Copies every live bullet into another store, replacing its contents.
+     * Used to hand the bullets to the renderer without sharing arrays.
+     */
+    public void copyTo(ProjectileSystem target) {
+        if (target.x.length < count) {
+            target.allocate(x.length);
+        }
+        System.arraycopy(x, 0, target.x, 0, count);
+        System.arraycopy(y, 0, target.y, 0, count);
+        System.arraycopy(prevX, 0, target.prevX, 0, count);
+        System.arraycopy(prevY, 0, target.prevY, 0, count);
+        System.arraycopy(vx, 0, target.vx, 0, count);
+        System.arraycopy(vy, 0, target.vy, 0, count);
+        System.arraycopy(bounces, 0, target.bounces, 0, count);
+        System.arraycopy(sprite, 0, target.sprite, 0, count);
+        target.count = count;
+    }
+
+    /** Removes every bullet. */
+    public void clear() {
+        count = 0;
+    }
+
+    /** @return number of live bullets */
+    public int size() {
+        return count;
+    }
+
+    public int getX(int i) {
+        return x[i];
+    }
+
+    public int getY(int i) {
+        return y[i];
+    }
+
+    /** @return x-coordinate of bullet {@code i} at the start of the current tick */
+    public int getPrevX(int i) {
+        return prevX[i];
+    }
+
+    /** @return y-coordinate of bullet {@code i} at the start of the current tick */
+    public int getPrevY(int i) {
+        return prevY[i];
+    }
+
+    /**
+     * Draws every bullet between its previous and current position.
+     *
+     * @param alpha Fraction of a tick elapsed since the last update (0 to 1)
+     */
+    public void draw(Graphics2D g2, int xOffset, int yOffset, double alpha) {
+        for (int i = 0; i < count; i++) {
+            int drawX = (int) Math.round(prevX[i] + (x[i] - prevX[i]) * alpha);
+            int drawY = (int) Math.round(prevY[i] + (y[i] - prevY[i]) * alpha);
+            g2.drawImage(sprites[sprite[i]], drawX + xOffset, drawY + yOffset, SIZE, SIZE, null);
+        }
+    }
+
+    private void allocate(int capacity) {
+        x = new int[capacity];
+        y = new int[capacity];
+        vx = new int[capacity];
+        vy = new int[capacity];
+        prevX = new int[capacity];
+        prevY = new int[capacity];
+        bounces = new int[capacity];
+        sprite = new byte[capacity];
+    }
+
+    private void grow() {
+        int capacity = x.length * 2;
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        vx = Arrays.copyOf(vx, capacity);
+        vy = Arrays.copyOf(vy, capacity);
+        prevX = Arrays.copyOf(prevX, capacity);
+        prevY = Arrays.copyOf(prevY, capacity);
+        bounces = Arrays.copyOf(bounces, capacity);
+        sprite = Arrays.copyOf(sprite, capacity);
+    }
+}
@@ -0,0 +1,238 @@
+import java.awt.Graphics2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Everything needed to draw one frame, copied out of the {@link GameWorld} by
+ * the simulation thread. Snapshots are recycled through a {@link TripleBuffer}:
+ * once published a snapshot is never modified while the renderer holds it, so
+ * the renderer can draw it without locking while the world keeps changing.
+ */
+public class RenderSnapshot {
+
+    // Time (System.nanoTime) at which the captured tick was due; used for interpolation
+    private long timeNanos;
+
+    // World state
+    private MapGenerator map;
+    private int wave;
+    private boolean waveInProgress;
+    private int score;
+    private boolean gameOver;
+
+    // Characters and bullets
+    private final CharacterSprite player = new CharacterSprite();
+    private CharacterSprite[] enemies = new CharacterSprite[0];
+    private int enemyCount;
+    private final ProjectileSystem projectiles = new ProjectileSystem(GameWorld.WIDTH, GameWorld.HEIGHT);
+
+    // Pickups never move or change once spawned, so they are shared by reference
+    private final ArrayList<PowerUpItem> powerUpItems = new ArrayList<>();
+    private final ArrayList<HealItem> healItems = new ArrayList<>();
+
+    // HUD values
+    private int health, shield;
+    private int damageEffectAlpha;
+    private int speedCount, shotgunCount;
+    private boolean speedActive, shotgunActive;
+    private int speedRemaining, shotgunRemaining;
+    private int bandageCount, shieldPotionCount;
+
+    /**
+     * Copies the drawable state of the world into this snapshot. Only call
+     * from the thread that steps the world.
+     *
+     * @param timeNanos Time at which the world's latest tick was due
+     */
+    public void capture(GameWorld world, long timeNanos) {
+        this.timeNanos = timeNanos;
+        map = world.getMap();
+        wave = world.getWave();
+        waveInProgress = world.isWaveInProgress();
+        score = world.getScore();
+        gameOver = world.isGameOver();
+
+        Player p = world.getPlayer();
+        player.capture(p);
+        List<Enemy> worldEnemies = world.getEnemies();
+        enemyCount = worldEnemies.size();
+        if (enemies.length < enemyCount) {
+            int oldLength = enemies.length;
+            enemies = Arrays.copyOf(enemies, Math.max(enemyCount, oldLength * 2));
+            for (int i = oldLength; i < enemies.length; i++) {
+                enemies[i] = new CharacterSprite();
+            }
+        }
+        for (int i = 0; i < enemyCount; i++) {
+            enemies[i].capture(worldEnemies.get(i));
+        }
+        world.getProjectiles().copyTo(projectiles);
+
+        powerUpItems.clear();
+        powerUpItems.addAll(world.getPowerUpItems());
+        healItems.clear();
+        healItems.addAll(world.getHealItems());
+
+        health = p.getHealth();
+        shield = p.getShield();
+        damageEffectAlpha = p.getDamageEffectAlpha();
+
+        speedCount = shotgunCount = 0;
+        speedActive = shotgunActive = false;
+        speedRemaining = shotgunRemaining = 0;
+        for (Player.InventoryPowerUp ip : p.getPowerUps()) {
+            if (ip.powerUp instanceof SpeedBoost) {
+                speedCount++;
+                if (ip.active) { speedActive = true; speedRemaining = ip.remaining; }
+            } else if (ip.powerUp instanceof Shotgun) {
+                shotgunCount++;
+                if (ip.active) { shotgunActive = true; shotgunRemaining = ip.remaining; }
+            }
+        }
+
+        bandageCount = shieldPotionCount = 0;
+        for (Player.InventoryHeal ih : p.getHeals()) {
+            if (ih.heal instanceof Bandage) bandageCount++; else if (ih.heal instanceof ShieldPotion) shieldPotionCount++;
+        }
+    }
+
+    /**
+     * Draws pickups, bullets, the player and enemies in world coordinates.
+     *
+     * @param alpha Fraction of a tick elapsed since the captured tick (0 to 1)
+     */
+    public void drawWorld(Graphics2D g2, int xOffset, int yOffset, double alpha) {
+        for (PowerUpItem item : powerUpItems) {
+            item.draw(g2, xOffset, yOffset);
+        }
+        for (HealItem item : healItems) {
+            item.draw(g2, xOffset, yOffset);
+        }
+        projectiles.draw(g2, xOffset, yOffset, alpha);
+        player.draw(g2, xOffset, yOffset, alpha);
+        for (int i = 0; i < enemyCount; i++) {
+            enemies[i].draw(g2, xOffset, yOffset, alpha);
+        }
+    }
+
+    /**
+     * Adds the screen areas covered by every moving or pickup sprite at any
+     * point between the captured tick's start and end.
+     */
+    public void addSpriteBounds(DirtyRegions regions) {
+        for (PowerUpItem item : powerUpItems) {
+            regions.addSwept(item.x, item.y, item.x, item.y, item.width, item.height);
+        }
+        for (HealItem item : healItems) {
+            regions.addSwept(item.x, item.y, item.x, item.y, item.width, item.height);
+        }
+        for (int i = 0; i < projectiles.size(); i++) {
+            regions.addSwept(projectiles.getPrevX(i), projectiles.getPrevY(i),
+                    projectiles.getX(i), projectiles.getY(i), ProjectileSystem.SIZE, ProjectileSystem.SIZE);
+        }
+        player.addBounds(regions);
+        for (int i = 0; i < enemyCount; i++) {
+            enemies[i].addBounds(regions);
+        }
+    }
+
+    public long getTimeNanos() {
+        return timeNanos;
+    }
+
+    public MapGenerator getMap() {
+        return map;
+    }
+
+    public int getWave() {
+        return wave;
+    }
+
+    public boolean isWaveInProgress() {
+        return waveInProgress;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    public int getHealth() {
+        return health;
+    }
+
+    public int getShield() {
+        return shield;
+    }
+
+    public int getDamageEffectAlpha() {
+        return damageEffectAlpha;
+    }
+
+    public int getSpeedCount() {
+        return speedCount;
+    }
+
+    public int getShotgunCount() {
+        return shotgunCount;
+    }
+
+    public boolean isSpeedActive() {
+        return speedActive;
+    }
+
+    public boolean isShotgunActive() {
+        return shotgunActive;
+    }
+
+    /** @return milliseconds left on the active speed boost */
+    public int getSpeedRemaining() {
+        return speedRemaining;
+    }
+
+    /** @return milliseconds left on the active shotgun */
+    public int getShotgunRemaining() {
+        return shotgunRemaining;
+    }
+
+    public int getBandageCount() {
+        return bandageCount;
+    }
+
+    public int getShieldPotionCount() {
+        return shieldPotionCount;
+    }
+
+    /** Drawable state of one character. */
+    private static class CharacterSprite {
+        private SpriteSheet sheet;
+        private int x, y, prevX, prevY;
+        private int direction, frame;
+        private boolean moving;
+
+        void capture(Character c) {
+            sheet = c.getSpriteSheet();
+            x = c.x;
+            y = c.y;
+            prevX = c.getPrevX();
+            prevY = c.getPrevY();
+            direction = c.getDirectionFacing();
+            frame = c.getAnimationFrame();
+            moving = c.isMoving();
+        }
+
+        void addBounds(DirtyRegions regions) {
+            regions.addSwept(prevX, prevY, x, y, sheet.getFrameWidth(), sheet.getFrameHeight());
+        }
+
+        void draw(Graphics2D g2, int xOffset, int yOffset, double alpha) {
+            int drawX = (int) Math.round(prevX + (x - prevX) * alpha);
+            int drawY = (int) Math.round(prevY + (y - prevY) * alpha);
+            sheet.draw(g2, drawX + xOffset, drawY + yOffset, direction, frame, moving);
+        }
+    }
+}
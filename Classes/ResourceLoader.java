@@ -1,16 +1,45 @@
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.PrintWriter;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 
 public class ResourceLoader {
+
+    /** Decoded images keyed by file name. Each file is only decoded once. */
+    private static final ConcurrentHashMap<String, CachedImage> imageCache = new ConcurrentHashMap<>();
+
     /**
      * Loads an image from /res/images/ if res is marked as a Resources Root.
+     * Images are decoded once and the same instance is handed to every caller,
+     * so the returned image must be treated as read-only.
      * @param filename The image file name (e.g., "Character.png")
-     * @return The loaded BufferedImage, or null if not found
+     * @return The shared BufferedImage, or null if not found
      */
     public static BufferedImage loadImage(String filename) {
+        CachedImage cached = imageCache.get(filename);
+        if (cached == null) {
+            // computeIfAbsent guarantees only one thread decodes a given file,
+            // and so counts the miss; racing threads find its slot
+            cached = imageCache.computeIfAbsent(filename, name -> {
+                CachedImage c = new CachedImage(name);
+                c.misses.incrementAndGet();
+                return c;
+            });
+        }
+        cached.lookups.incrementAndGet();
+        return cached.image;
+    }
+
+    /** Decodes an image straight from the classpath, bypassing the cache. */
+    private static BufferedImage decodeImage(String filename) {
         try (InputStream is = ResourceLoader.class.getResourceAsStream("/images/" + filename)) {
             if (is == null) {
                 throw new IOException("Image not found: /images/" + filename);
@@ -22,4 +51,80 @@ public class ResourceLoader {
             return null;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Returns a snapshot of the image cache keyed by file name, sorted
+     * alphabetically.
+     */
+    public static Map<String, AssetStats> getCacheStats() {
+        Map<String, AssetStats> stats = new TreeMap<>();
+        for (Map.Entry<String, CachedImage> entry : imageCache.entrySet()) {
+            CachedImage c = entry.getValue();
+            long misses = c.misses.get();
+            stats.put(entry.getKey(), new AssetStats(c.heapBytes, c.lookups.get() - misses, misses));
+        }
+        return stats;
+    }
+
+    /** Total number of bytes held by every decoded image in the cache. */
+    public static long getCachedBytes() {
+        long total = 0;
+        for (CachedImage c : imageCache.values()) {
+            total += c.heapBytes;
+        }
+        return total;
+    }
+
+    /**
+     * Writes one CSV row per cached asset with its size and hit/miss counts,
+     * followed by a total row.
+     */
+    public static void writeCacheCsv(File file) {
+        try (PrintWriter pw = new PrintWriter(file)) {
+            pw.println("asset,bytes,hits,misses");
+            for (Map.Entry<String, AssetStats> entry : getCacheStats().entrySet()) {
+                AssetStats s = entry.getValue();
+                pw.printf("%s,%d,%d,%d%n", entry.getKey(), s.heapBytes, s.hits, s.misses);
+            }
+            pw.printf("TOTAL,%d,,%n", getCachedBytes());
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Estimates how many bytes of pixel data an image keeps on the heap.
+     */
+    static long estimateHeapBytes(BufferedImage img) {
+        if (img == null) return 0;
+        DataBuffer buffer = img.getRaster().getDataBuffer();
+        long bytesPerElement = DataBuffer.getDataTypeSize(buffer.getDataType()) / 8;
+        return (long) buffer.getSize() * buffer.getNumBanks() * bytesPerElement;
+    }
+
+    /** Cache slot for a single decoded image and its usage counters. */
+    private static class CachedImage {
+        final BufferedImage image;
+        final long heapBytes;
+        final AtomicLong lookups = new AtomicLong(); // Every loadImage call, hit or miss
+        final AtomicLong misses = new AtomicLong(); // Loads that decoded the file
+
+        CachedImage(String filename) {
+            this.image = decodeImage(filename);
+            this.heapBytes = estimateHeapBytes(image);
+        }
+    }
+
+    /** Immutable usage figures for one cached asset. */
+    public static class AssetStats {
+        public final long heapBytes;
+        public final long hits;
+        public final long misses;
+
+        AssetStats(long heapBytes, long hits, long misses) {
+            this.heapBytes = heapBytes;
+            this.hits = hits;
+            this.misses = misses;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Decoded PCM audio keyed by file name, so each sound effect is read and
+ * parsed once instead of on every play. Samples are converted to signed
+ * 16-bit little-endian PCM at the file's own rate and channel count.
+ * <p>
+ * The total size of the cached samples is capped. Copies made from a sample,
+ * such as the data each open clip holds, can be {@link #charge charged} to
+ * it so they count against the cap too. When a new sample or charge would go
+ * over the cap, the least recently used samples are evicted and the eviction
+ * listener is told, so anything built from them can be released. Safe to use
+ * from any thread.
+ */
+public class SampleCache {
+
+    /** Decoded audio of one file. */
+    public static class Sample {
+        public final AudioFormat format;
+        public final byte[] data;
+
+        Sample(AudioFormat format, byte[] data) {
+            this.format = format;
+            this.data = data;
+        }
+
+        /** @return length in sample frames */
+        public int getFrameCount() {
+            return data.length / format.getFrameSize();
+        }
+    }
+
+    private final long maxBytes;
+    private final Consumer<String> onEvict;
+
+    // Access-ordered, so iteration starts at the least recently used sample
+    private final LinkedHashMap<String, Sample> samples = new LinkedHashMap<>(16, 0.75f, true);
+    private final HashMap<String, Long> charged = new HashMap<>(); // Bytes of copies, by file name
+    private final Set<String> failed = new HashSet<>(); // Files that could not be decoded
+    private long cachedBytes;
+    private long hits, misses, evictions;
+
+    /**
+     * @param maxBytes Most bytes of PCM data kept at once
+     * @param onEvict  Called with the file name of every evicted sample, or null
+     */
+    public SampleCache(long maxBytes, Consumer<String> onEvict) {
+        this.maxBytes = maxBytes;
+        this.onEvict = onEvict;
+    }
+
+    /**
+     * Returns the decoded audio of a file in /res/Audio, decoding it on first
+     * use. A sample larger than the whole cap is returned without being cached.
+     *
+     * @param filename The audio file name
+     * @return the sample, or null if the file is missing or can't be decoded
+     */
+    public Sample get(String filename) {
+        synchronized (this) {
+            Sample sample = samples.get(filename);
+            if (sample != null) {
+                hits++;
+                return sample;
+            }
+            if (failed.contains(filename)) return null;
+            misses++;
+        }
+
+        // Decode outside the lock so other sounds can still be looked up
+        Sample sample = decode(filename);
+        Set<String> evicted = new HashSet<>();
+        synchronized (this) {
+            if (sample == null) {
+                failed.add(filename);
+                return null;
+            }
+            Sample existing = samples.get(filename);
+            if (existing != null) return existing; // Another thread decoded it first
+            if (sample.data.length > maxBytes) return sample;
+
+            samples.put(filename, sample);
+            cachedBytes += sample.data.length;
+            evictOver(filename, evicted);
+        }
+        notifyEvicted(evicted);
+        return sample;
+    }
+
+    /**
+     * Counts bytes held elsewhere on account of a cached sample against the
+     * cap, evicting other samples if needed. The bytes are released when the
+     * sample is evicted. Does nothing if the sample isn't cached.
+     *
+     * @param filename The audio file name
+     * @param bytes    Size of the copies made from the sample
+     */
+    public void charge(String filename, long bytes) {
+        Set<String> evicted = new HashSet<>();
+        synchronized (this) {
+            if (!samples.containsKey(filename)) return;
+            charged.merge(filename, bytes, Long::sum);
+            cachedBytes += bytes;
+            evictOver(filename, evicted);
+        }
+        notifyEvicted(evicted);
+    }
+
+    /** Evicts least recently used samples, other than {@code keep}, until under the cap. */
+    private void evictOver(String keep, Set<String> evicted) {
+        Iterator<Map.Entry<String, Sample>> it = samples.entrySet().iterator();
+        while (cachedBytes > maxBytes && it.hasNext()) {
+            Map.Entry<String, Sample> eldest = it.next();
+            if (eldest.getKey().equals(keep)) continue;
+            Long copies = charged.remove(eldest.getKey());
+            cachedBytes -= eldest.getValue().data.length + (copies == null ? 0 : copies);
+            evicted.add(eldest.getKey());
+            it.remove();
+            evictions++;
+        }
+    }
+
+    /** Tells the listener about evictions; called without the lock held. */
+    private void notifyEvicted(Set<String> evicted) {
+        if (onEvict != null) {
+            for (String name : evicted) onEvict.accept(name);
+        }
+    }
+
+    /** @return total bytes of PCM data currently cached, including charged copies */
+    public synchronized long getCachedBytes() {
+        return cachedBytes;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /** Reads and converts a whole file straight from the classpath, bypassing the cache. */
+    static Sample decode(String filename) {
+        try (InputStream is = SoundPlayer.class.getResourceAsStream("/Audio/" + filename)) {
+            if (is == null) {
+                throw new IOException("Audio not found: /Audio/" + filename);
+            }
+            // AudioSystem needs mark/reset to detect the file type
+            AudioInputStream source = AudioSystem.getAudioInputStream(new BufferedInputStream(is));
+            AudioFormat format = pcm16(source.getFormat());
+            try (AudioInputStream ais = source.getFormat().matches(format)
+                    ? source : AudioSystem.getAudioInputStream(format, source)) {
+                return new Sample(format, ais.readAllBytes());
+            }
+        } catch (Exception e) {
+            System.err.println("Error loading audio: " + filename);
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /** @return signed 16-bit little-endian PCM with the same rate and channels */
+    static AudioFormat pcm16(AudioFormat format) {
+        return new AudioFormat(AudioFormat.Encoding.PCM_SIGNED, format.getSampleRate(), 16,
+                format.getChannels(), format.getChannels() * 2, format.getSampleRate(), false);
+    }
+}
@@ -0,0 +1,225 @@
+import java.util.Arrays;
+
+/**
+ * Orders score records from highest score to lowest and answers rank and
+ * position queries in logarithmic time, however many scores it holds.
+ * <p>
+ * Every entry is a single {@code long} key: the inverted score in the high
+ * half and the record number in the low half, so sorting keys ascending
+ * sorts by score descending, with earlier records first among equal
+ * scores. Keys live in two sorted arrays: a large main array and a small
+ * delta array that new keys are inserted into. When the delta fills up it
+ * is merged into the main array in one linear pass, so an insert costs a
+ * shift within the small array plus an amortized share of the merge, both
+ * about the square root of the size.
+ * Queries binary search both arrays.
+ * <p>
+ * Not thread-safe.
+ */
+public class ScoreIndex {
+
+    /**
+     * Fewest keys kept in the delta array before it's merged into the main
+     * array. Beyond that the limit is the square root of the main array's
+     * size, which balances the shift on every insert against the share of
+     * each merge.
+     */
+    private static final int MIN_DELTA = 256;
+
+    private long[] main;
+    private int mainSize;
+    private long[] delta = new long[8];
+    private int deltaSize;
+
+    public ScoreIndex() {
+        main = new long[0];
+    }
+
+    /**
+     * Builds an index from unsorted keys in one sort.
+     *
+     * @param keys Keys made by {@link #key}; the array is sorted in place and
+     *             kept by the index
+     * @param size Number of keys in use at the start of the array
+     */
+    public ScoreIndex(long[] keys, int size) {
+        Arrays.sort(keys, 0, size);
+        main = keys;
+        mainSize = size;
+    }
+
+    /**
+     * @return the key for a record; negative scores order like 0, and record
+     * numbers compare unsigned, so negative ones come after all the others
+     */
+    public static long key(int score, int record) {
+        return ((long) (Integer.MAX_VALUE - Math.max(score, 0)) << 32) | (record & 0xffffffffL);
+    }
+
+    /** @return the record number of a key */
+    public static int recordOf(long key) {
+        return (int) key;
+    }
+
+    /** @return number of entries */
+    public int size() {
+        return mainSize + deltaSize;
+    }
+
+    /** Adds a record's score. */
+    public void add(int score, int record) {
+        long key = key(score, record);
+        if (deltaSize >= Math.max(MIN_DELTA, (int) Math.sqrt(mainSize))) merge();
+        if (deltaSize == delta.length) delta = Arrays.copyOf(delta, deltaSize * 2);
+        int at = insertionPoint(delta, deltaSize, key);
+        System.arraycopy(delta, at, delta, at + 1, deltaSize - at);
+        delta[at] = key;
+        deltaSize++;
+    }
+
+    /**
+     * Removes records in one pass over the arrays, for removing many at once.
+     *
+     * @param keys Keys made by {@link #key}; sorted in place
+     * @param n    Number of keys in use at the start of the array
+     */
+    public void removeAll(long[] keys, int n) {
+        if (n == 0) return;
+        Arrays.sort(keys, 0, n);
+        deltaSize = removeSorted(delta, deltaSize, keys, n);
+        mainSize = removeSorted(main, mainSize, keys, n);
+    }
+
+    /** @return how many entries have a higher score */
+    public int countAbove(int score) {
+        if (score < 0) score = 0;
+        long bound = (long) (Integer.MAX_VALUE - score) << 32;
+        return insertionPoint(main, mainSize, bound) + insertionPoint(delta, deltaSize, bound);
+    }
+
+    /** @return how many entries have this score or a higher one */
+    public int countAtOrAbove(int score) {
+        if (score <= 0) return size();
+        return countAbove(score - 1);
+    }
+
+    /**
+     * @return the rank the score has, 1 for the best; equal scores share a
+     * rank
+     */
+    public int rank(int score) {
+        return countAbove(score) + 1;
+    }
+
+    /**
+     * @return the percentage of entries with a lower score, from 0 to 100,
+     * or 100 when the index is empty
+     */
+    public double percentile(int score) {
+        int size = size();
+        if (size == 0) return 100;
+        return 100.0 * (size - countAtOrAbove(score)) / size;
+    }
+
+    /**
+     * @param position Position in score order, 0 for the best
+     * @return the record at that position
+     */
+    public int get(int position) {
+        if (position < 0 || position >= size()) {
+            throw new IndexOutOfBoundsException("Position " + position + " of " + size());
+        }
+        int m = split(position);
+        int d = position - m;
+        if (m == mainSize) return recordOf(delta[d]);
+        if (d == deltaSize) return recordOf(main[m]);
+        return recordOf(Math.min(main[m], delta[d]));
+    }
+
+    /**
+     * Copies a run of records in score order.
+     *
+     * @param from    Position of the first record, 0 for the best
+     * @param records Array the records are written to, from its start
+     * @return number of records written, fewer than the array holds at the end
+     * of the index
+     */
+    public int page(int from, int[] records) {
+        if (from < 0) throw new IndexOutOfBoundsException("Position " + from);
+        int count = Math.max(0, Math.min(records.length, size() - from));
+        int m = split(from);
+        int d = from - m;
+        for (int i = 0; i < count; i++) {
+            if (d == deltaSize || (m < mainSize && main[m] < delta[d])) {
+                records[i] = recordOf(main[m++]);
+            } else {
+                records[i] = recordOf(delta[d++]);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Finds how many of the first {@code k} keys in merged order come from
+     * the main array, by binary searching the point where the two arrays
+     * cross.
+     */
+    private int split(int k) {
+        int lo = Math.max(0, k - deltaSize);
+        int hi = Math.min(k, mainSize);
+        while (lo < hi) {
+            int m = (lo + hi) >>> 1;
+            // If main[m] sorts before the last delta key taken, take more from main
+            if (main[m] < delta[k - m - 1]) lo = m + 1;
+            else hi = m;
+        }
+        return lo;
+    }
+
+    /** Merges the delta array into the main array, back to front so no copy is needed. */
+    private void merge() {
+        int total = mainSize + deltaSize;
+        if (main.length < total) {
+            main = Arrays.copyOf(main, Math.max(total, mainSize + mainSize / 2));
+        }
+        int m = mainSize - 1;
+        int d = deltaSize - 1;
+        for (int to = total - 1; d >= 0; to--) {
+            if (m >= 0 && main[m] > delta[d]) main[to] = main[m--];
+            else main[to] = delta[d--];
+        }
+        mainSize = total;
+        deltaSize = 0;
+    }
+
+    /**
+     * Removes the sorted keys from a sorted array in place.
+     *
+     * @return the new size of the array
+     */
+    private static int removeSorted(long[] array, int size, long[] keys, int n) {
+        if (size == 0) return 0;
+        int from = insertionPoint(array, size, keys[0]);
+        int to = from;
+        int k = 0;
+        for (int i = from; i < size; i++) {
+            long key = array[i];
+            while (k < n && keys[k] < key) k++;
+            if (k < n && keys[k] == key) continue;
+            array[to++] = key;
+        }
+        return to;
+    }
+
+    /** @return the index of the first key not less than {@code key} */
+    private static int insertionPoint(long[] keys, int size, long key) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (keys[mid] < key) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,37 @@
+/**
+ * One score, as a player name and the points scored. Scores are written as
+ * {@code name - score} lines, in the old highscores text file and in the
+ * batches sent to a {@link LeaderboardServer}.
+ */
+public class ScoreLine {
+    public final String username;
+    public final int score;
+
+    public ScoreLine(String username, int score) {
+        this.username = username;
+        this.score = score;
+    }
+
+    /**
+     * Parses a {@code name - score} line. The name may contain dashes; the
+     * score is whatever follows the last one, and is 0 if that isn't a number.
+     */
+    public static ScoreLine parse(String line) {
+        int idx = line.lastIndexOf('-');
+        if (idx == -1) return new ScoreLine(line.trim(), 0);
+        return new ScoreLine(line.substring(0, idx).trim(), parseScore(line.substring(idx + 1)));
+    }
+
+    private static int parseScore(String text) {
+        try {
+            return Integer.parseInt(text.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return username + " - " + score;
+    }
+}
@@ -0,0 +1,270 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Append-only file of fixed-size score records, memory-mapped so reading a
+ * record is a memory access. The file starts with a header holding the
+ * number of records; a record is written first and the count is bumped
+ * after it, so a crash part way through an append leaves the record
+ * uncounted rather than half-written.
+ * <p>
+ * Layout, all big-endian:
+ * <pre>
+ * header  int magic, int version, long count           16 bytes
+ * record  int score, long time, byte nameLength,
+ *         name in UTF-8, zero padded                   32 bytes
+ * </pre>
+ * Names longer than {@value #MAX_NAME_BYTES} bytes are cut at a character
+ * boundary. The mapping grows by doubling, so the file is usually longer
+ * than the records in it; the count in the header is what counts.
+ * <p>
+ * Several processes can append to the same file. Appending takes an
+ * exclusive lock on the header, reads the count other processes have left
+ * there, writes the records after it and publishes the new count with
+ * release semantics. Readers never lock: {@link #refresh()} reads the count
+ * with acquire semantics and picks up whatever was appended, remapping if
+ * the file has grown. Within one process, use a single store per file, as
+ * file locks are held by the whole process.
+ */
+public class ScoreStore implements Closeable {
+
+    static final int MAGIC = 0x48534331; // "HSC1"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    static final int RECORD_BYTES = 32;
+    static final int MAX_NAME_BYTES = RECORD_BYTES - 13;
+    private static final int COUNT_OFFSET = 8;
+    private static final int INITIAL_RECORDS = 4096;
+    /** One mapping is limited to 2 GB. */
+    private static final int MAX_RECORDS = (Integer.MAX_VALUE - HEADER_BYTES) / RECORD_BYTES;
+    // Atomic, ordered access to the count shared with other processes
+    private static final VarHandle COUNT =
+            MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    /** A score to append. */
+    public static final class Record {
+        public final String name;
+        public final int score;
+        public final long time;
+
+        public Record(String name, int score, long time) {
+            this.name = name;
+            this.score = score;
+            this.time = time;
+        }
+    }
+
+    private final FileChannel channel;
+    // Replaced when the file grows; readers keep using the one they loaded
+    private volatile MappedByteBuffer map;
+    private volatile int count;
+
+    /**
+     * Opens the store, creating an empty one if the file doesn't exist.
+     *
+     * @throws IOException if the file can't be opened or isn't a score store
+     */
+    public ScoreStore(Path file) throws IOException {
+        channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            // Another process may be creating the file at the same time
+            FileLock lock = channel.lock(0, HEADER_BYTES, false);
+            try {
+                if (channel.size() == 0) {
+                    MappedByteBuffer m = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytesFor(INITIAL_RECORDS));
+                    m.putLong(COUNT_OFFSET, 0);
+                    m.putInt(4, VERSION);
+                    m.putInt(0, MAGIC);
+                    m.force();
+                }
+            } finally {
+                lock.release();
+            }
+            long size = channel.size();
+            if (size < HEADER_BYTES) throw new IOException("Not a score store: " + file);
+            map = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.min(size, bytesFor(MAX_RECORDS)));
+            if (map.getInt(0) != MAGIC || map.getInt(4) != VERSION) {
+                throw new IOException("Not a score store: " + file);
+            }
+            count = storedCount(map);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /** @return number of records, as of the last append or {@link #refresh()} */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Picks up records other processes have appended. Doesn't take the file
+     * lock, so it never waits for a writer.
+     *
+     * @return number of records
+     */
+    public int refresh() {
+        MappedByteBuffer m = map;
+        if ((long) COUNT.getAcquire(m, COUNT_OFFSET) <= count) return count;
+        synchronized (this) {
+            try {
+                // Appenders grow the file before counting records in the new part
+                long size = channel.size();
+                if (size > m.capacity()) {
+                    m = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.min(size, bytesFor(MAX_RECORDS)));
+                    map = m;
+                }
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            count = Math.max(count, storedCount(m));
+            return count;
+        }
+    }
+
+    public int getScore(int record) {
+        return map.getInt(offset(record));
+    }
+
+    /** @return when the score was recorded, in epoch milliseconds, or 0 if unknown */
+    public long getTime(int record) {
+        return map.getLong(offset(record) + 4);
+    }
+
+    public String getName(int record) {
+        ByteBuffer m = map;
+        int at = offset(record);
+        int length = Math.min(m.get(at + 12) & 0xff, MAX_NAME_BYTES);
+        byte[] bytes = new byte[length];
+        m.get(at + 13, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Appends a record.
+     *
+     * @return index of the new record
+     * @throws IOException if the file can't be locked or grown
+     */
+    public int append(String name, int score, long time) throws IOException {
+        return append(List.of(new Record(name, score, time)));
+    }
+
+    /**
+     * Appends records after any appended by other processes, holding the
+     * file lock once for all of them.
+     *
+     * @return index of the first new record
+     * @throws IOException if the file can't be locked or grown
+     */
+    public int append(List<Record> records) throws IOException {
+        return append(records, false);
+    }
+
+    /**
+     * Appends records only if the store is empty, as one step no other
+     * process can come between. Either all the records are counted or, after
+     * a crash, none are.
+     *
+     * @return true if the records were appended
+     * @throws IOException if the file can't be locked or grown
+     */
+    public boolean appendIfEmpty(List<Record> records) throws IOException {
+        return append(records, true) >= 0;
+    }
+
+    private synchronized int append(List<Record> records, boolean ifEmpty) throws IOException {
+        FileLock lock = channel.lock(0, HEADER_BYTES, false);
+        try {
+            MappedByteBuffer m = map;
+            if (channel.size() > m.capacity()) m = grow(0); // Grown by another process
+            int first = Math.max(count, storedCount(m));
+            if (ifEmpty && first > 0) {
+                count = first;
+                return -1;
+            }
+            if ((long) first + records.size() > MAX_RECORDS) throw new IOException("Score store is full");
+            int end = first + records.size();
+            if (offset(end) > m.capacity()) m = grow(end);
+            for (int i = 0; i < records.size(); i++) {
+                Record record = records.get(i);
+                byte[] bytes = encode(record.name);
+                int at = offset(first + i);
+                m.putInt(at, record.score);
+                m.putLong(at + 4, record.time);
+                m.put(at + 12, (byte) bytes.length);
+                m.put(at + 13, bytes);
+                m.put(at + 13 + bytes.length, new byte[MAX_NAME_BYTES - bytes.length]);
+            }
+            // The records are complete before they're counted
+            COUNT.setRelease(m, COUNT_OFFSET, (long) end);
+            count = end;
+            return first;
+        } finally {
+            lock.release();
+        }
+    }
+
+    /** Writes changes made through the mapping to the disk. */
+    public synchronized void force() {
+        map.force();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        map.force();
+        channel.close();
+    }
+
+    /**
+     * Remaps the file with room for at least {@code records}, doubling its
+     * size, and never smaller than the file already is. Call with the file
+     * lock held.
+     */
+    private MappedByteBuffer grow(int records) throws IOException {
+        long capacity = Math.max(INITIAL_RECORDS, (map.capacity() - HEADER_BYTES) / RECORD_BYTES);
+        while (capacity < records) capacity *= 2;
+        capacity = Math.min(Math.max(capacity, (channel.size() - HEADER_BYTES) / RECORD_BYTES), MAX_RECORDS);
+        map.force();
+        map = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytesFor((int) capacity));
+        return map;
+    }
+
+    /** @return the count in the header, never past the end of the mapping */
+    private static int storedCount(MappedByteBuffer m) {
+        long stored = (long) COUNT.getAcquire(m, COUNT_OFFSET);
+        return (int) Math.max(0, Math.min(stored, (m.capacity() - HEADER_BYTES) / RECORD_BYTES));
+    }
+
+    /** @return the name as UTF-8, cut to fit a record without splitting a character */
+    static byte[] encode(String name) {
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length <= MAX_NAME_BYTES) return bytes;
+        int length = MAX_NAME_BYTES;
+        while (length > 0 && (bytes[length] & 0xc0) == 0x80) length--; // Continuation byte
+        byte[] cut = new byte[length];
+        System.arraycopy(bytes, 0, cut, 0, length);
+        return cut;
+    }
+
+    private static int offset(int record) {
+        return HEADER_BYTES + record * RECORD_BYTES;
+    }
+
+    private static long bytesFor(int records) {
+        return HEADER_BYTES + (long) records * RECORD_BYTES;
+    }
+}
@@ -1,105 +1,162 @@
 import javax.sound.sampled.*;
-import java.io.IOException;
-import java.io.InputStream;
 
+/**
+ * Plays the game's music and sound effects. Effects are decoded once into a
+ * {@link SampleCache} and played from a {@link ClipPool} of pre-opened clips
+ * per sound, so firing doesn't open a new audio line every shot. Music is
+ * streamed by a {@link MusicStreamer}, crossfading when the track changes.
+ * <p>
+ * In mixer mode everything, music included, is played through one
+ * {@link AudioMixer} instead of a line per clip. Mixer mode is chosen at
+ * startup with {@code -Dgame.audioMixer=true}; adding
+ * {@code -Dgame.audioOutput=null} mixes into a null device, which works
+ * without any sound hardware.
+ */
 public class SoundPlayer {
-    private static Clip backgroundClip;
     // Volume scale between 0.0 (mute) and 1.0 (full volume)
     private static final float DEFAULT_VOLUME = 0.5f;
+    // Length of the fade between two background tracks
+    private static final int CROSSFADE_MS = 1000;
+    private static final MusicStreamer music = new MusicStreamer(DEFAULT_VOLUME);
+    // How many copies of one sound effect can play at once
+    private static final int VOICES_PER_SOUND = 4;
+    // Most decoded sound effect data kept in memory, the clips' copies included
+    private static final long SAMPLE_CACHE_BYTES = 32L * 1024 * 1024;
+
+    // Sound effect samples, and their clip pools in clip mode
+    private static final EffectClips effects = new EffectClips(SAMPLE_CACHE_BYTES, VOICES_PER_SOUND, DEFAULT_VOLUME);
+    private static final SampleCache samples = effects.getSamples();
+    // When false every play call is ignored (used for headless simulation)
+    private static volatile boolean enabled = true;
+
+    // Software mixer used instead of clips in mixer mode, or null
+    private static volatile AudioMixer mixer;
+    static {
+        if (Boolean.getBoolean("game.audioMixer")) {
+            boolean nullOutput = "null".equals(System.getProperty("game.audioOutput"));
+            useMixer(nullOutput ? new AudioMixer.NullOutput() : new AudioMixer.LineOutput());
+        }
+    }
+
+    /** A sound that is playing, which can be stopped early. */
+    public interface Playback {
+        void stop();
+    }
 
     /**
-     * Adjusts the volume of the provided clip. If the clip does not support
-     * MASTER_GAIN control this method does nothing.
+     * Enables or disables all audio playback. Disabling also stops the
+     * background track.
      */
-    private static void setVolume(Clip clip, float volume) {
-        if (clip == null) {
-            return;
-        }
-        try {
-            FloatControl control = (FloatControl) clip.getControl(FloatControl.Type.MASTER_GAIN);
-            float dB = (float) (20.0 * Math.log10(Math.max(0.0001f, volume)));
-            dB = Math.max(dB, control.getMinimum());
-            dB = Math.min(dB, control.getMaximum());
-            control.setValue(dB);
-        } catch (IllegalArgumentException ignored) {
-            // Clip doesn't support volume control
+    public static void setEnabled(boolean on) {
+        enabled = on;
+        if (!on) {
+            stopBackground();
         }
     }
 
+    /** @return true if audio playback is enabled */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
     /**
-     * Plays the specified audio file on loop from the /res/Audio directory.
-     * @param filename The audio file name (e.g., "BackgroundMusic.mp3")
+     * Switches to mixer mode, playing everything through a software mixer
+     * writing to {@code output}. Passing null goes back to clips. Sounds that
+     * are already playing keep playing where they are, apart from the
+     * background track, which is stopped.
+     *
+     * @return true if the mode was switched, false if the output couldn't be opened
      */
-    public static void playBackground(String filename) {
+    public static synchronized boolean useMixer(AudioMixer.Output output) {
         stopBackground();
-        try (InputStream is = SoundPlayer.class.getResourceAsStream("/Audio/" + filename)) {
-            if (is == null) {
-                throw new IOException("Audio not found: /Audio/" + filename);
-            }
-            AudioInputStream ais = AudioSystem.getAudioInputStream(is);
-            backgroundClip = AudioSystem.getClip();
-            backgroundClip.open(ais);
-            setVolume(backgroundClip, DEFAULT_VOLUME);
-            backgroundClip.loop(Clip.LOOP_CONTINUOUSLY);
-        } catch (Exception e) {
-            System.err.println("Error playing background audio: " + filename);
+        if (mixer != null) {
+            mixer.stop();
+            mixer = null;
+        }
+        if (output == null) return true;
+        AudioMixer m = new AudioMixer(output);
+        try {
+            m.start();
+        } catch (LineUnavailableException | RuntimeException e) {
+            System.err.println("Error opening audio output, using clips");
             e.printStackTrace();
+            return false;
         }
+        mixer = m;
+        return true;
+    }
+
+    /** @return the mixer's statistics, or null when not in mixer mode */
+    public static AudioMixer.Metrics getMixerMetrics() {
+        AudioMixer m = mixer;
+        return m == null ? null : m.getMetrics();
+    }
+
+    /**
+     * Streams the specified audio file on loop from the /res/Audio directory,
+     * crossfading from the track that is playing. Returns at once; the track
+     * is opened on a background thread.
+     * @param filename The audio file name (e.g., "BackgroundMusic.wav")
+     */
+    public static void playBackground(String filename) {
+        if (!enabled) return;
+        music.play(filename, mixer, CROSSFADE_MS);
     }
 
     /** Stops the currently playing background audio if any. */
     public static void stopBackground() {
-        if (backgroundClip != null) {
-            backgroundClip.stop();
-            backgroundClip.close();
-            backgroundClip = null;
-        }
+        music.stop(0);
     }
 
-    /** Pauses the background audio without closing the clip. */
+    /** Pauses the background audio, keeping its position. */
     public static void pauseBackground() {
-        if (backgroundClip != null && backgroundClip.isRunning()) {
-            backgroundClip.stop();
-        }
+        music.pause();
     }
 
-    /** Resumes a previously paused background audio clip. */
+    /** Resumes previously paused background audio. */
     public static void resumeBackground() {
-        if (backgroundClip != null && !backgroundClip.isRunning()) {
-            backgroundClip.start();
+        music.resume();
+    }
+
+    /**
+     * Decodes sound effects and opens their clips ahead of time, so the first
+     * play of each doesn't stall.
+     */
+    public static void preload(String... filenames) {
+        if (!enabled) return;
+        for (String filename : filenames) {
+            if (mixer != null) samples.get(filename);
+            else effects.preload(filename);
         }
     }
 
     /**
-     * Plays the specified audio file once from the /res/Audio directory and
-     * returns the Clip so callers may stop it early if desired.
+     * Plays the specified audio file once from the /res/Audio directory. In
+     * clip mode the sound plays on a clip from the sound's pool, which is
+     * reused once it stops; in mixer mode it plays on a mixer voice.
      *
      * @param filename The audio file name
-     * @return the Clip that is playing, or null if an error occurred
+     * @return the sound that is playing, or null if it can't be played
      */
-    public static Clip playSound(String filename) {
-        try (InputStream is = SoundPlayer.class.getResourceAsStream("/Audio/" + filename)) {
-            if (is == null) {
-                throw new IOException("Audio not found: /Audio/" + filename);
-            }
-            AudioInputStream ais = AudioSystem.getAudioInputStream(is);
-            Clip clip = AudioSystem.getClip();
-            clip.open(ais);
-            setVolume(clip, DEFAULT_VOLUME);
-            clip.start();
-            return clip;
-        } catch (Exception e) {
-            System.err.println("Error playing audio: " + filename);
-            e.printStackTrace();
+    public static Playback playSound(String filename) {
+        if (!enabled) return null;
+        AudioMixer m = mixer;
+        if (m != null) {
+            SampleCache.Sample sample = samples.get(filename);
+            if (sample == null) return null;
+            long voice = m.play(sample, DEFAULT_VOLUME, 0, false);
+            return () -> m.stop(voice);
         }
-        return null;
+        return effects.play(filename);
     }
 
-    /** Stops and closes the provided Clip if it is not null. */
-    public static void stopClip(Clip clip) {
-        if (clip != null) {
-            clip.stop();
-            clip.close();
+    /**
+     * Stops the provided sound if it is not null. A pooled clip is returned
+     * to its pool and stays open for the next play.
+     */
+    public static void stopSound(Playback sound) {
+        if (sound != null) {
+            sound.stop();
         }
     }
-}
\ No newline at end of file
+}
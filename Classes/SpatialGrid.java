@@ -0,0 +1,169 @@
+import java.awt.Rectangle;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Uniform grid used as a collision broadphase. Every item is stored in each
+ * cell its bounds overlap, so a query only has to look at the items in the
+ * few cells the query rectangle touches instead of every item in the world.
+ * <p>
+ * Items outside the grid are clamped into the border cells, which keeps
+ * queries correct for enemies still walking in from outside the map.
+ * The grid reuses its internal arrays, so clearing and refilling it every
+ * tick allocates nothing once it has grown to the working size.
+ *
+ * @param <T> Type of item stored; its bounds are its Rectangle fields
+ */
+public class SpatialGrid<T extends Rectangle> {
+
+    private final int cellSize;
+    private final int cols, rows;
+
+    // Singly linked list of entries per cell, stored in parallel arrays
+    private final int[] cellHead;
+    private int[] entryNext = new int[64];
+    private int[] entryItem = new int[64];
+    private int entryCount;
+
+    // Items and the query stamp used to report each item only once per query
+    private Object[] items = new Object[32];
+    private int[] itemStamp = new int[32];
+    private int itemCount;
+    private int stamp;
+
+    /**
+     * @param width    Width of the area covered in pixels
+     * @param height   Height of the area covered in pixels
+     * @param cellSize Width and height of one cell, normally the map tile size
+     */
+    public SpatialGrid(int width, int height, int cellSize) {
+        this.cellSize = cellSize;
+        this.cols = Math.max(1, (width + cellSize - 1) / cellSize);
+        this.rows = Math.max(1, (height + cellSize - 1) / cellSize);
+        this.cellHead = new int[cols * rows];
+        Arrays.fill(cellHead, -1);
+    }
+
+    /** Removes every item from the grid. */
+    public void clear() {
+        Arrays.fill(cellHead, -1);
+        Arrays.fill(items, 0, itemCount, null);
+        entryCount = 0;
+        itemCount = 0;
+    }
+
+    /**
+     * Adds an item using its current bounds. Items that move must be
+     * re-inserted after a {@link #clear()}.
+     */
+    public void insert(T item) {
+        if (itemCount == items.length) {
+            items = Arrays.copyOf(items, itemCount * 2);
+            itemStamp = Arrays.copyOf(itemStamp, itemCount * 2);
+        }
+        int index = itemCount++;
+        items[index] = item;
+        itemStamp[index] = stamp;
+
+        int c0 = cellX(item.x), c1 = cellX(item.x + item.width - 1);
+        int r0 = cellY(item.y), r1 = cellY(item.y + item.height - 1);
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                addEntry(r * cols + c, index);
+            }
+        }
+    }
+
+    /** Adds every item in the list. */
+    public void insertAll(List<? extends T> list) {
+        for (int i = 0; i < list.size(); i++) {
+            insert(list.get(i));
+        }
+    }
+
+    /**
+     * Collects every item whose bounds intersect the given area.
+     *
+     * @param area Area to test
+     * @param out  List that matching items are appended to
+     * @return number of items added to {@code out}
+     */
+    @SuppressWarnings("unchecked")
+    public int query(Rectangle area, List<T> out) {
+        int found = 0;
+        int current = nextStamp();
+        int c0 = cellX(area.x), c1 = cellX(area.x + area.width - 1);
+        int r0 = cellY(area.y), r1 = cellY(area.y + area.height - 1);
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                for (int e = cellHead[r * cols + c]; e != -1; e = entryNext[e]) {
+                    int index = entryItem[e];
+                    if (itemStamp[index] == current) continue;
+                    itemStamp[index] = current;
+                    T item = (T) items[index];
+                    if (item.intersects(area)) {
+                        out.add(item);
+                        found++;
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Returns the first item found whose bounds intersect the given area,
+     * or null if there is none.
+     */
+    @SuppressWarnings("unchecked")
+    public T queryFirst(Rectangle area) {
+        int current = nextStamp();
+        int c0 = cellX(area.x), c1 = cellX(area.x + area.width - 1);
+        int r0 = cellY(area.y), r1 = cellY(area.y + area.height - 1);
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                for (int e = cellHead[r * cols + c]; e != -1; e = entryNext[e]) {
+                    int index = entryItem[e];
+                    if (itemStamp[index] == current) continue;
+                    itemStamp[index] = current;
+                    T item = (T) items[index];
+                    if (item.intersects(area)) return item;
+                }
+            }
+        }
+        return null;
+    }
+
+    /** @return number of items in the grid */
+    public int size() {
+        return itemCount;
+    }
+
+    private int nextStamp() {
+        stamp++;
+        if (stamp == 0) {
+            // Wrapped around: old stamps could collide with new ones
+            Arrays.fill(itemStamp, 0);
+            stamp = 1;
+        }
+        return stamp;
+    }
+
+    private void addEntry(int cell, int index) {
+        if (entryCount == entryNext.length) {
+            entryNext = Arrays.copyOf(entryNext, entryCount * 2);
+            entryItem = Arrays.copyOf(entryItem, entryCount * 2);
+        }
+        entryItem[entryCount] = index;
+        entryNext[entryCount] = cellHead[cell];
+        cellHead[cell] = entryCount++;
+    }
+
+    private int cellX(int x) {
+        return Math.max(0, Math.min(cols - 1, Math.floorDiv(x, cellSize)));
+    }
+
+    private int cellY(int y) {
+        return Math.max(0, Math.min(rows - 1, Math.floorDiv(y, cellSize)));
+    }
+}
@@ -1,8 +1,6 @@
-import javax.sound.sampled.Clip;
-
 public class SpeedBoost extends PowerUp {
     private double boostAmount;
-    private Clip soundClip;
+    private SoundPlayer.Playback sound;
 
     public SpeedBoost(int duration, double boostAmount) {
         super(duration);
@@ -12,13 +10,13 @@ public class SpeedBoost extends PowerUp {
     @Override
     public void activate(Player player) {
         player.addSpeed(boostAmount);
-        soundClip = SoundPlayer.playSound("SpeedBoostSound.wav");
+        sound = SoundPlayer.playSound("SpeedBoostSound.wav");
     }
 
     @Override
     public void deactivate(Player player) {
         player.addSpeed(-boostAmount);
-        SoundPlayer.stopClip(soundClip);
-        soundClip = null;
+        SoundPlayer.stopSound(sound);
+        sound = null;
     }
 }
\ No newline at end of file
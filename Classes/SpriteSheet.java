@@ -0,0 +1,156 @@
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+
+/**
+ * Idle and walking animations of a character. Both sheets have one column per
+ * facing direction (down, up, right, left) and one row per animation frame.
+ * A sheet holds no per-character state, so one instance is shared by every
+ * character of a type and can be drawn from any thread.
+ * <p>
+ * The sheets are sliced into one image per animation, direction and frame
+ * when they are loaded. The frames are also kept pre-scaled to the scale they
+ * were last drawn at, as images compatible with the screen, so drawing a
+ * character through a scaled graphics context is an unscaled 1:1 blit
+ * instead of resampling part of the sheet every frame.
+ */
+public class SpriteSheet {
+
+    private static final int DIRECTIONS = 4;
+
+    // [moving ? 1 : 0][column][frame]
+    private final BufferedImage[][][] frames;
+    private final int frameW, frameH;
+
+    // Frames scaled for the current display; replaced as a whole when the scale changes
+    private volatile ScaledFrames scaled;
+
+    /** Frames pre-scaled to one scale. */
+    private static class ScaledFrames {
+        final double scale;
+        final BufferedImage[][][] frames;
+
+        ScaledFrames(double scale, BufferedImage[][][] frames) {
+            this.scale = scale;
+            this.frames = frames;
+        }
+    }
+
+    /**
+     * @param idleFile    Image file of the idle animation
+     * @param walkingFile Image file of the walking animation
+     * @param frameW      Width of one frame
+     * @param frameH      Height of one frame
+     */
+    public SpriteSheet(String idleFile, String walkingFile, int frameW, int frameH) {
+        this.frameW = frameW;
+        this.frameH = frameH;
+        this.frames = new BufferedImage[][][] {
+                slice(ResourceLoader.loadImage(idleFile)),
+                slice(ResourceLoader.loadImage(walkingFile))
+        };
+    }
+
+    public int getFrameWidth() {
+        return frameW;
+    }
+
+    public int getFrameHeight() {
+        return frameH;
+    }
+
+    /**
+     * Draws one frame of the animation. When the graphics context is only
+     * scaled and translated, the frame is drawn pre-scaled at the matching
+     * device position without any resampling.
+     *
+     * @param x         X-coordinate of the top-left corner
+     * @param y         Y-coordinate of the top-left corner
+     * @param direction Facing direction: 1=left, 2=right, 3=up, 4=down
+     * @param frame     Animation frame (row of the sheet)
+     * @param moving    Whether to use the walking animation instead of idle
+     */
+    public void draw(Graphics2D g, int x, int y, int direction, int frame, boolean moving) {
+        int col = 4 - direction; // Columns are ordered down, up, right, left
+        BufferedImage[] column = frames[moving ? 1 : 0][col];
+        if (frame < 0 || frame >= column.length) return;
+
+        AffineTransform at = g.getTransform();
+        int type = at.getType();
+        if ((type & ~(AffineTransform.TYPE_TRANSLATION | AffineTransform.TYPE_UNIFORM_SCALE)) != 0) {
+            // Rotated or stretched: let Java2D transform the frame
+            g.drawImage(column[frame], x, y, frameW, frameH, null);
+            return;
+        }
+
+        double scale = at.getScaleX();
+        if (scale == 1) {
+            g.drawImage(column[frame], x, y, null);
+            return;
+        }
+
+        BufferedImage image = scaledFrames(g, scale)[moving ? 1 : 0][col][frame];
+        int deviceX = (int) Math.round(at.getTranslateX() + x * scale);
+        int deviceY = (int) Math.round(at.getTranslateY() + y * scale);
+        g.setTransform(new AffineTransform());
+        g.drawImage(image, deviceX, deviceY, null);
+        g.setTransform(at);
+    }
+
+    /** Cuts a sheet into one image per column and frame. */
+    private BufferedImage[][] slice(BufferedImage sheet) {
+        int rows = sheet == null ? 0 : sheet.getHeight() / frameH;
+        BufferedImage[][] columns = new BufferedImage[DIRECTIONS][rows];
+        for (int col = 0; col < DIRECTIONS; col++) {
+            for (int row = 0; row < rows; row++) {
+                BufferedImage frame = new BufferedImage(frameW, frameH, BufferedImage.TYPE_INT_ARGB);
+                Graphics2D g = frame.createGraphics();
+                g.drawImage(sheet, 0, 0, frameW, frameH,
+                        col * frameW, row * frameH, col * frameW + frameW, (row + 1) * frameH, null);
+                g.dispose();
+                columns[col][row] = frame;
+            }
+        }
+        return columns;
+    }
+
+    /** @return the frames scaled to {@code scale}, building them if the scale changed */
+    private BufferedImage[][][] scaledFrames(Graphics2D target, double scale) {
+        ScaledFrames current = scaled;
+        if (current != null && current.scale == scale) return current.frames;
+
+        int w = Math.max(1, (int) Math.round(frameW * scale));
+        int h = Math.max(1, (int) Math.round(frameH * scale));
+        BufferedImage[][][] result = new BufferedImage[frames.length][][];
+        for (int anim = 0; anim < frames.length; anim++) {
+            result[anim] = new BufferedImage[DIRECTIONS][];
+            for (int col = 0; col < DIRECTIONS; col++) {
+                BufferedImage[] source = frames[anim][col];
+                result[anim][col] = new BufferedImage[source.length];
+                for (int row = 0; row < source.length; row++) {
+                    // A compatible image matches the screen format so Java2D can cache it in VRAM
+                    BufferedImage image = target.getDeviceConfiguration()
+                            .createCompatibleImage(w, h, Transparency.TRANSLUCENT);
+                    Graphics2D g = image.createGraphics();
+                    g.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                            RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+                    g.drawImage(source[row], 0, 0, w, h, null);
+                    g.dispose();
+                    result[anim][col][row] = image;
+                }
+            }
+        }
+
+        if (current != null) {
+            for (BufferedImage[][] anim : current.frames) {
+                for (BufferedImage[] column : anim) {
+                    for (BufferedImage image : column) image.flush();
+                }
+            }
+        }
+        scaled = new ScaledFrames(scale, result);
+        return result;
+    }
+}
@@ -0,0 +1,76 @@
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+
+/**
+ * Caches the parts of the map that never move (background, walls and
+ * obstacles) as one pre-scaled image. The layer is rebuilt only when the
+ * map layout or the display scale changes, so drawing it each frame is a
+ * single unscaled blit.
+ */
+public class StaticMapLayer {
+
+    private final BufferedImage background;
+    private final BufferedImage obstacle;
+
+    // What the cached image was built for
+    private BufferedImage layer;
+    private MapGenerator cachedMap;
+    private double cachedScale;
+
+    /**
+     * @param background Full map background, including the walls
+     * @param obstacle   Image drawn on every obstacle tile
+     */
+    public StaticMapLayer(BufferedImage background, BufferedImage obstacle) {
+        this.background = background;
+        this.obstacle = obstacle;
+    }
+
+    /**
+     * Draws the static layer for the given map, rebuilding it first if the map
+     * or scale changed since the last call. The graphics context must not be
+     * scaled; the layer is already drawn at the requested scale.
+     *
+     * @param g     Unscaled graphics context
+     * @param map   Map whose obstacles should be drawn
+     * @param scale Scale from world to screen pixels
+     * @param x     Screen x of the world's top-left corner
+     * @param y     Screen y of the world's top-left corner
+     */
+    public void draw(Graphics2D g, MapGenerator map, double scale, int x, int y) {
+        if (layer == null || map != cachedMap || scale != cachedScale) {
+            rebuild(g, map, scale);
+        }
+        g.drawImage(layer, x, y, null);
+    }
+
+    private void rebuild(Graphics2D target, MapGenerator map, double scale) {
+        int w = Math.max(1, (int) (Main.GAME_WIDTH * scale));
+        int h = Math.max(1, (int) (Main.GAME_HEIGHT * scale));
+
+        // A compatible image matches the screen format so Java2D can cache it in VRAM
+        if (layer == null || layer.getWidth() != w || layer.getHeight() != h) {
+            if (layer != null) layer.flush();
+            layer = target.getDeviceConfiguration().createCompatibleImage(w, h, Transparency.OPAQUE);
+        }
+
+        Graphics2D g = layer.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.scale(scale, scale);
+            g.drawImage(background, 0, 0, null);
+            for (Rectangle tile : map.getObstacles()) {
+                g.drawImage(obstacle, tile.x, tile.y, null);
+            }
+        } finally {
+            g.dispose();
+        }
+
+        cachedMap = map;
+        cachedScale = scale;
+    }
+}
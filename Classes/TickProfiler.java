@@ -0,0 +1,204 @@
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Arrays;
+
+/**
+ * Low-overhead timer for the phases of a game tick and the paint path.
+ * Each phase keeps its most recent samples in a fixed-size ring buffer, from
+ * which p50/p99/max are worked out on demand. Recording a sample is a
+ * {@link System#nanoTime()} call and an array store under the phase's own
+ * lock, and nothing at all when the profiler is disabled.
+ * <p>
+ * Tick phases are recorded on the simulation thread and painting on the
+ * thread that draws, while the stats are read for the overlay and the CSV
+ * file. Each phase's window is guarded by its own lock, so the two writers
+ * never wait on each other, and readers only hold it to copy the window.
+ * <p>
+ * Usage:
+ * <pre>
+ *     long t = profiler.start();
+ *     dealDamage();
+ *     t = profiler.record(TickProfiler.Phase.DAMAGE, t);
+ *     aliveDead();
+ *     t = profiler.record(TickProfiler.Phase.CLEANUP, t);
+ * </pre>
+ */
+public class TickProfiler {
+
+    /** Timed sections of a tick, plus painting. */
+    public enum Phase {
+        PREPARE("prepare"),
+        DAMAGE("dealDamage"),
+        CLEANUP("aliveDead"),
+        PICKUPS("pickups"),
+        POWER_UPS("updatePowerUps"),
+        SPAWNING("spawning"),
+        PLAYER_MOVE("playerMovement"),
+        MOVE("move"),
+        ENEMY_AI("enemyAI"),
+        PAINT("paint");
+
+        final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+    }
+
+    /** Number of samples kept per phase. */
+    private static final int WINDOW = 1024;
+    /** How often the overlay recomputes its percentiles. */
+    private static final long OVERLAY_REFRESH_NANOS = 250_000_000L;
+
+    // Each phase's samples and count are guarded by that phase's samples array
+    private final long[][] samples = new long[Phase.values().length][WINDOW];
+    private final long[] totalSamples = new long[Phase.values().length];
+    private volatile boolean enabled;
+
+    // Overlay state; stats are cached so the overlay doesn't sort every frame
+    private volatile boolean overlayVisible; // Toggled on the event thread
+    private final long[] scratch = new long[WINDOW]; // Guarded by this
+    private final long[][] overlayStats = new long[Phase.values().length][3];
+    private volatile long lastOverlayRefresh;
+    private final Font overlayFont = new Font(Font.MONOSPACED, Font.PLAIN, 18);
+
+    /** Creates an enabled profiler. */
+    public TickProfiler() {
+        this(true);
+    }
+
+    /**
+     * @param enabled Whether samples are recorded from the start
+     */
+    public TickProfiler(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * @return the start timestamp for the first phase, or 0 when disabled
+     */
+    public long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records the time since {@code startNanos} for a phase.
+     *
+     * @return the end timestamp, to be used as the start of the next phase
+     */
+    public long record(Phase phase, long startNanos) {
+        if (!enabled) return 0;
+        long now = System.nanoTime();
+        int p = phase.ordinal();
+        long[] window = samples[p];
+        synchronized (window) {
+            long n = totalSamples[p]++;
+            window[(int) (n % WINDOW)] = now - startNanos;
+        }
+        return now;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void toggleOverlay() {
+        overlayVisible = !overlayVisible;
+        lastOverlayRefresh = 0;
+    }
+
+    public boolean isOverlayVisible() {
+        return overlayVisible;
+    }
+
+    /**
+     * Computes p50, p99 and max (in nanoseconds) over the samples currently in
+     * the phase's window.
+     *
+     * @param out Array of at least 3 elements receiving p50, p99 and max
+     * @return number of samples the figures are based on
+     */
+    public synchronized int getStats(Phase phase, long[] out) {
+        int p = phase.ordinal();
+        long[] window = samples[p];
+        int count;
+        synchronized (window) {
+            count = (int) Math.min(totalSamples[p], WINDOW);
+            System.arraycopy(window, 0, scratch, 0, count);
+        }
+        if (count == 0) {
+            out[0] = out[1] = out[2] = 0;
+            return 0;
+        }
+        // Sorted outside the phase's lock so recording never waits for it
+        Arrays.sort(scratch, 0, count);
+        out[0] = scratch[(count - 1) / 2];
+        out[1] = scratch[(int) Math.ceil(count * 0.99) - 1];
+        out[2] = scratch[count - 1];
+        return count;
+    }
+
+    /**
+     * Draws a table of per-phase timings in the top-right corner if the
+     * overlay is visible.
+     */
+    public void drawOverlay(Graphics2D g, int width) {
+        if (!overlayVisible) return;
+
+        long now = System.nanoTime();
+        if (now - lastOverlayRefresh > OVERLAY_REFRESH_NANOS) {
+            for (Phase phase : Phase.values()) {
+                getStats(phase, overlayStats[phase.ordinal()]);
+            }
+            lastOverlayRefresh = now;
+        }
+
+        g.setFont(overlayFont);
+        FontMetrics fm = g.getFontMetrics();
+        int lineH = fm.getHeight();
+        String header = String.format("%-15s %8s %8s %8s", "phase (us)", "p50", "p99", "max");
+        int boxW = fm.stringWidth(header) + 20;
+        int boxH = lineH * (Phase.values().length + 1) + 10;
+        int x = width - boxW - 20;
+        int y = 20;
+
+        g.setColor(new Color(0, 0, 0, 180));
+        g.fillRect(x, y, boxW, boxH);
+        g.setColor(Color.GREEN);
+        int lineY = y + 5 + fm.getAscent();
+        g.drawString(header, x + 10, lineY);
+        for (Phase phase : Phase.values()) {
+            long[] s = overlayStats[phase.ordinal()];
+            lineY += lineH;
+            g.drawString(String.format("%-15s %8.1f %8.1f %8.1f", phase.label,
+                    s[0] / 1000.0, s[1] / 1000.0, s[2] / 1000.0), x + 10, lineY);
+        }
+    }
+
+    /**
+     * Writes one CSV row per phase with its sample count and p50/p99/max in
+     * microseconds.
+     */
+    public void writeCsv(File file) {
+        long[] s = new long[3];
+        try (PrintWriter pw = new PrintWriter(file)) {
+            pw.println("phase,samples,p50_us,p99_us,max_us");
+            for (Phase phase : Phase.values()) {
+                int count = getStats(phase, s);
+                pw.printf("%s,%d,%.3f,%.3f,%.3f%n", phase.label, count,
+                        s[0] / 1000.0, s[1] / 1000.0, s[2] / 1000.0);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Lock-free handoff of the latest value from one writer thread to one reader
+ * thread. Of the three buffers, the writer fills its back buffer while the
+ * reader uses its front buffer; publishing and acquiring only swap indices
+ * with the middle buffer, so neither side ever waits for the other and the
+ * reader never sees a buffer that is still being written.
+ * <p>
+ * The writer may overwrite a published buffer the reader never picked up,
+ * so the reader always gets the newest complete value and skips stale ones.
+ *
+ * @param <T> Type of the buffers
+ */
+public class TripleBuffer<T> {
+
+    private static final int INDEX_MASK = 0b011;
+    private static final int FRESH = 0b100; // Set when the middle buffer hasn't been read
+
+    private final Object[] buffers = new Object[3];
+    private final AtomicInteger middle = new AtomicInteger(1);
+    private int back = 0;  // Only used by the writer
+    private int front = 2; // Only used by the reader
+
+    /**
+     * @param factory Creates each of the three buffers
+     */
+    public TripleBuffer(Supplier<T> factory) {
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = factory.get();
+        }
+    }
+
+    /**
+     * @return the buffer the writer may fill; only call from the writer thread
+     */
+    @SuppressWarnings("unchecked")
+    public T getWriteBuffer() {
+        return (T) buffers[back];
+    }
+
+    /**
+     * Makes the write buffer the latest value and hands the writer a new
+     * buffer. Only call from the writer thread.
+     */
+    public void publish() {
+        back = middle.getAndSet(back | FRESH) & INDEX_MASK;
+    }
+
+    /**
+     * Returns the latest published value. The returned buffer is not touched
+     * by the writer until the next call. Only call from the reader thread.
+     */
+    @SuppressWarnings("unchecked")
+    public T acquire() {
+        if ((middle.get() & FRESH) != 0) {
+            front = middle.getAndSet(front) & INDEX_MASK;
+        }
+        return (T) buffers[front];
+    }
+}
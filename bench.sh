@@ -0,0 +1,8 @@
+#!/bin/sh
+# Compile the game and the benchmarks, then run the benchmarks.
+# Arguments are passed to BenchmarkRunner, e.g.
+#   ./bench.sh -json bench.json Steering
+mkdir -p out out/bench
+javac --release 23 -d out Classes/*.java &&
+javac --release 23 -cp out -d out/bench benchmarks/*.java &&
+java -cp out:out/bench:res BenchmarkRunner "$@"
@@ -0,0 +1,70 @@
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Base class for a microbenchmark run by {@link BenchmarkRunner}. A benchmark
+ * declares its parameters and their values in the constructor; the runner
+ * calls {@link #setup(Map)} once for every combination and then times
+ * repeated calls to {@link #run()}.
+ */
+public abstract class Benchmark {
+
+    private final LinkedHashMap<String, String[]> params = new LinkedHashMap<>();
+
+    /**
+     * Declares a parameter and the values it is benchmarked with.
+     */
+    protected void param(String name, String... values) {
+        params.put(name, values);
+    }
+
+    /** @return name used in reports and for filtering */
+    public String getName() {
+        return getClass().getSimpleName();
+    }
+
+    /**
+     * @return every combination of parameter values, in declaration order
+     */
+    public List<Map<String, String>> getParamCombinations() {
+        List<Map<String, String>> combinations = new ArrayList<>();
+        combinations.add(new LinkedHashMap<>());
+        for (Map.Entry<String, String[]> param : params.entrySet()) {
+            List<Map<String, String>> next = new ArrayList<>();
+            for (Map<String, String> combination : combinations) {
+                for (String value : param.getValue()) {
+                    Map<String, String> copy = new LinkedHashMap<>(combination);
+                    copy.put(param.getKey(), value);
+                    next.add(copy);
+                }
+            }
+            combinations = next;
+        }
+        return combinations;
+    }
+
+    /**
+     * Prepares the state for one parameter combination. Not timed.
+     */
+    public abstract void setup(Map<String, String> params);
+
+    /**
+     * Performs one operation. The result is consumed by the runner so the JIT
+     * cannot discard the work.
+     */
+    public abstract long run();
+
+    /**
+     * @return how many entities one {@link #run()} handles with the current
+     * parameters, for reporting the time per entity, or 0 if that doesn't apply
+     */
+    public int entitiesPerRun() {
+        return 0;
+    }
+
+    protected static int intParam(Map<String, String> params, String name) {
+        return Integer.parseInt(params.get(name));
+    }
+}
@@ -0,0 +1,188 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Runs the simulation benchmarks and reports the average time per operation
+ * for every parameter combination, and per entity for benchmarks that scale
+ * with an entity count. Each combination gets a number of warmup
+ * iterations so the JIT settles, followed by timed measurement iterations.
+ * <p>
+ * Usage: {@code BenchmarkRunner [-wi n] [-i n] [-t ms] [-json file] [regex]}
+ * <ul>
+ *     <li>{@code -wi} warmup iterations (default 3)</li>
+ *     <li>{@code -i} measurement iterations (default 5)</li>
+ *     <li>{@code -t} length of one iteration in milliseconds (default 1000)</li>
+ *     <li>{@code -json} also write the results to a JSON file laid out like
+ *     JMH's JSON output, so results from different versions can be compared</li>
+ *     <li>{@code regex} only run benchmarks whose name matches</li>
+ * </ul>
+ */
+public class BenchmarkRunner {
+
+    // z-score for a two-sided 99.9% confidence interval
+    private static final double Z_999 = 3.29;
+    /** Most calls timed between two clock reads. */
+    private static final int MAX_BATCH = 1024;
+    /** Batches quicker than this are doubled, so the clock reads stay negligible. */
+    private static final long MIN_BATCH_NANOS = 100_000;
+
+    // Results are written here so the work done by run() can't be optimized away
+    private static volatile long sink;
+
+    private static Benchmark[] allBenchmarks() {
+        return new Benchmark[] {
+                new CollisionBenchmark(),
+                new SteeringBenchmark(),
+                new MapGenerationBenchmark(),
+                new BulletUpdateBenchmark(),
+                new ScoreIndexBenchmark(),
+                new HighscoreIndexBenchmark(),
+                new EnemyAiBenchmark(),
+                new WorldStepBenchmark()
+        };
+    }
+
+    /** Result of one benchmark with one parameter combination. */
+    private record Result(String benchmark, Map<String, String> params, double[] nanosPerOp) {
+
+        double mean() {
+            double sum = 0;
+            for (double v : nanosPerOp) sum += v;
+            return sum / nanosPerOp.length;
+        }
+
+        double error() {
+            if (nanosPerOp.length < 2) return Double.NaN;
+            double mean = mean();
+            double sq = 0;
+            for (double v : nanosPerOp) sq += (v - mean) * (v - mean);
+            double sd = Math.sqrt(sq / (nanosPerOp.length - 1));
+            return Z_999 * sd / Math.sqrt(nanosPerOp.length);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int warmups = 3;
+        int iterations = 5;
+        long iterationMs = 1000;
+        File json = null;
+        Pattern filter = null;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-wi" -> warmups = Integer.parseInt(args[++i]);
+                case "-i" -> iterations = Integer.parseInt(args[++i]);
+                case "-t" -> iterationMs = Long.parseLong(args[++i]);
+                case "-json" -> json = new File(args[++i]);
+                default -> filter = Pattern.compile(args[i]);
+            }
+        }
+
+        // Firing plays sounds; benchmarks should only measure the simulation
+        SoundPlayer.setEnabled(false);
+
+        List<Result> results = new ArrayList<>();
+        for (Benchmark benchmark : allBenchmarks()) {
+            if (filter != null && !filter.matcher(benchmark.getName()).find()) continue;
+            for (Map<String, String> params : benchmark.getParamCombinations()) {
+                Result result = measure(benchmark, params, warmups, iterations, iterationMs);
+                results.add(result);
+                System.out.printf("%-24s %-40s %14.1f +- %10.1f ns/op",
+                        result.benchmark(), params, result.mean(), result.error());
+                // Shows whether the cost grows linearly with the entity count
+                int entities = benchmark.entitiesPerRun();
+                if (entities > 0) System.out.printf("  %8.2f ns/entity", result.mean() / entities);
+                System.out.println();
+            }
+        }
+
+        if (json != null) {
+            writeJson(json, results);
+            System.out.println("Results written to " + json);
+        }
+    }
+
+    private static Result measure(Benchmark benchmark, Map<String, String> params,
+                                  int warmups, int iterations, long iterationMs) {
+        benchmark.setup(params);
+        for (int i = 0; i < warmups; i++) {
+            iteration(benchmark, iterationMs);
+        }
+        double[] nanosPerOp = new double[iterations];
+        for (int i = 0; i < iterations; i++) {
+            nanosPerOp[i] = iteration(benchmark, iterationMs);
+        }
+        return new Result(benchmark.getName(), params, nanosPerOp);
+    }
+
+    /**
+     * Calls the benchmark repeatedly for about {@code iterationMs}. The clock
+     * is only read between batches of calls, which start at one call and
+     * double while a batch is quick, up to {@value #MAX_BATCH} calls, so
+     * reading it doesn't add to the time of fast operations.
+     *
+     * @return average nanoseconds per call
+     */
+    private static double iteration(Benchmark benchmark, long iterationMs) {
+        long budget = iterationMs * 1_000_000L;
+        long acc = 0;
+        long ops = 0;
+        int batch = 1;
+        long start = System.nanoTime();
+        long batchStart = start;
+        long elapsed;
+        do {
+            for (int i = 0; i < batch; i++) {
+                acc += benchmark.run();
+            }
+            ops += batch;
+            long now = System.nanoTime();
+            if (now - batchStart < MIN_BATCH_NANOS && batch < MAX_BATCH) batch *= 2;
+            batchStart = now;
+            elapsed = now - start;
+        } while (elapsed < budget);
+        sink += acc;
+        return elapsed / (double) ops;
+    }
+
+    private static void writeJson(File file, List<Result> results) throws IOException {
+        try (PrintWriter pw = new PrintWriter(file)) {
+            pw.println("[");
+            for (int r = 0; r < results.size(); r++) {
+                Result result = results.get(r);
+                pw.println("    {");
+                pw.printf("        \"benchmark\" : \"%s\",%n", result.benchmark());
+                pw.println("        \"mode\" : \"avgt\",");
+                pw.print("        \"params\" : {");
+                int p = 0;
+                for (Map.Entry<String, String> param : result.params().entrySet()) {
+                    pw.printf("%s\"%s\" : \"%s\"", p++ == 0 ? " " : ", ", param.getKey(), param.getValue());
+                }
+                pw.println(" },");
+                pw.println("        \"primaryMetric\" : {");
+                pw.printf("            \"score\" : %s,%n", number(result.mean()));
+                pw.printf("            \"scoreError\" : %s,%n", number(result.error()));
+                pw.println("            \"scoreUnit\" : \"ns/op\",");
+                pw.print("            \"rawData\" : [ [");
+                double[] raw = result.nanosPerOp();
+                for (int i = 0; i < raw.length; i++) {
+                    pw.print((i == 0 ? " " : ", ") + number(raw[i]));
+                }
+                pw.println(" ] ]");
+                pw.println("        }");
+                pw.println(r == results.size() - 1 ? "    }" : "    },");
+            }
+            pw.println("]");
+        }
+    }
+
+    private static String number(double v) {
+        return Double.isNaN(v) ? "\"NaN\"" : String.format(Locale.ROOT, "%.3f", v);
+    }
+}
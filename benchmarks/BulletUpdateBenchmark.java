@@ -0,0 +1,62 @@
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Fires a number of shotgun bursts from the centre of the map and updates the
+ * bullets for 20 ticks, bouncing them off walls and obstacles and testing them
+ * against a crowd of enemies.
+ */
+public class BulletUpdateBenchmark extends Benchmark {
+
+    private static final int TICKS = 20;
+
+    private MapGenerator map;
+    private Player player;
+    private final ProjectileSystem projectiles = new ProjectileSystem(GameWorld.WIDTH, GameWorld.HEIGHT);
+    private final ArrayList<Enemy> enemies = new ArrayList<>();
+    private SpatialGrid<Enemy> grid;
+    private int bursts;
+
+    public BulletUpdateBenchmark() {
+        param("bursts", "1", "10", "50");
+        param("enemies", "0", "100");
+    }
+
+    @Override
+    public void setup(Map<String, String> params) {
+        Random rand = new Random(42);
+        map = new MapGenerator(10, 10, 75, 3, rand);
+        grid = new SpatialGrid<>(GameWorld.WIDTH, GameWorld.HEIGHT, map.getTileSize());
+        bursts = intParam(params, "bursts");
+
+        player = new Player(415, 415, 70, 70, 5, GameWorld.WIDTH, GameWorld.HEIGHT);
+        player.addPowerUp(new Shotgun(Integer.MAX_VALUE), null);
+        player.usePowerUp(Shotgun.class);
+
+        // Enemies with a lot of health so bullets keep hitting the same crowd
+        enemies.clear();
+        for (int i = 0; i < intParam(params, "enemies"); i++) {
+            BasicEnemy e = new BasicEnemy(rand.nextInt(825), rand.nextInt(825), 75, 75, 2.5, i,
+                    GameWorld.WIDTH, GameWorld.HEIGHT);
+            e.health = Integer.MAX_VALUE;
+            enemies.add(e);
+        }
+        grid.clear();
+        grid.insertAll(enemies);
+    }
+
+    @Override
+    public long run() {
+        projectiles.clear();
+        for (int i = 0; i < bursts; i++) {
+            player.directionFacing = i % 4 + 1;
+            player.shoot(projectiles);
+        }
+        for (int t = 0; t < TICKS; t++) {
+            projectiles.savePreviousPositions();
+            projectiles.update(map, grid);
+        }
+        return projectiles.size();
+    }
+}
@@ -0,0 +1,68 @@
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * One tick's worth of collision queries: rebuild the enemy broadphase grid,
+ * find the enemies touching the player, test each enemy against the map and
+ * look up the enemy hit by each bullet. Goes up to 10000 enemies, and
+ * reports the time per enemy and bullet, to check that the grid keeps the
+ * cost close to linear in the number of entities.
+ */
+public class CollisionBenchmark extends Benchmark {
+
+    private MapGenerator map;
+    private Player player;
+    private final ArrayList<Enemy> enemies = new ArrayList<>();
+    private Rectangle[] bullets;
+    private SpatialGrid<Enemy> grid;
+    private final ArrayList<Enemy> nearby = new ArrayList<>();
+
+    public CollisionBenchmark() {
+        param("enemies", "10", "100", "1000", "2000", "5000", "10000");
+        param("bullets", "10", "200");
+    }
+
+    @Override
+    public void setup(Map<String, String> params) {
+        Random rand = new Random(42);
+        map = new MapGenerator(10, 10, 75, 3, rand);
+        grid = new SpatialGrid<>(GameWorld.WIDTH, GameWorld.HEIGHT, map.getTileSize());
+        player = new Player(415, 415, 70, 70, 5, GameWorld.WIDTH, GameWorld.HEIGHT);
+
+        enemies.clear();
+        for (int i = 0; i < intParam(params, "enemies"); i++) {
+            enemies.add(new BasicEnemy(rand.nextInt(825), rand.nextInt(825), 75, 75, 2.5, i,
+                    GameWorld.WIDTH, GameWorld.HEIGHT));
+        }
+        bullets = new Rectangle[intParam(params, "bullets")];
+        for (int i = 0; i < bullets.length; i++) {
+            bullets[i] = new Rectangle(rand.nextInt(880), rand.nextInt(880),
+                    ProjectileSystem.SIZE, ProjectileSystem.SIZE);
+        }
+    }
+
+    @Override
+    public int entitiesPerRun() {
+        return enemies.size() + bullets.length;
+    }
+
+    @Override
+    public long run() {
+        long hits = 0;
+        grid.clear();
+        grid.insertAll(enemies);
+
+        nearby.clear();
+        hits += grid.query(player, nearby);
+        for (int i = 0; i < enemies.size(); i++) {
+            Enemy e = enemies.get(i);
+            if (map.overlapsBlocked(e.x, e.y, e.width, e.height)) hits++;
+        }
+        for (Rectangle bullet : bullets) {
+            if (grid.queryFirst(bullet) != null) hits++;
+        }
+        return hits;
+    }
+}
@@ -0,0 +1,79 @@
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Times the enemy AI of one tick, with and without the
+ * {@link EnemyAiScheduler} tiers, as the number of enemies grows. A quarter
+ * of the crowd starts in the entrance corridors and the rest on random
+ * tiles. The player jumps to another tile every half second, so the flow
+ * field changes as it would in play, and the crowd is put back at its
+ * starting points every four seconds before it has all caught up.
+ */
+public class EnemyAiBenchmark extends Benchmark {
+
+    private static final int PLAYER_MOVE_TICKS = 50;
+    private static final int RESET_TICKS = 400;
+
+    private MapGenerator map;
+    private Player player;
+    private FlowField flowField;
+    private EnemyAiScheduler scheduler;
+    private final ArrayList<Enemy> enemies = new ArrayList<>();
+    private List<Rectangle> tiles;
+    private int[] startX, startY;
+    private long tick;
+
+    public EnemyAiBenchmark() {
+        param("enemies", "10", "100", "1000", "10000");
+        param("lod", "true", "false");
+    }
+
+    @Override
+    public void setup(Map<String, String> params) {
+        Random rand = new Random(42);
+        map = new MapGenerator(10, 10, 75, 5, rand);
+        player = new Player(415, 415, 70, 70, 5, GameWorld.WIDTH, GameWorld.HEIGHT);
+        flowField = new FlowField();
+        scheduler = new EnemyAiScheduler(Boolean.parseBoolean(params.get("lod")));
+        tiles = map.getWalkableTiles();
+
+        int count = intParam(params, "enemies");
+        enemies.clear();
+        startX = new int[count];
+        startY = new int[count];
+        for (int i = 0; i < count; i++) {
+            Rectangle start = i % 4 == 0
+                    ? map.getClearSpawnPoint(i / 4 % 4, 75)
+                    : tiles.get(rand.nextInt(tiles.size()));
+            startX[i] = start.x;
+            startY[i] = start.y;
+            enemies.add(new BasicEnemy(start.x, start.y, 75, 75, 2.5, i, GameWorld.WIDTH, GameWorld.HEIGHT));
+        }
+        tick = 0;
+    }
+
+    @Override
+    public long run() {
+        if (tick % RESET_TICKS == 0) {
+            for (int i = 0; i < enemies.size(); i++) {
+                Enemy e = enemies.get(i);
+                e.x = startX[i];
+                e.y = startY[i];
+                e.syncPosition();
+            }
+        }
+        if (tick % PLAYER_MOVE_TICKS == 0) {
+            Rectangle tile = tiles.get((int) (tick / PLAYER_MOVE_TICKS * 7 % tiles.size()));
+            player.x = tile.x;
+            player.y = tile.y;
+        }
+        tick++;
+
+        flowField.update(map, player.x + player.width / 2, player.y + player.height / 2);
+        scheduler.update(enemies, player, map, flowField, tick);
+        return scheduler.getThinks();
+    }
+}
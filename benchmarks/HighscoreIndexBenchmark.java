@@ -0,0 +1,72 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Queries a score store holding every run, as the death screen and the
+ * leaderboard do: the rank and percentile of a score, and a page of 20
+ * entries read back from the memory-mapped file.
+ */
+public class HighscoreIndexBenchmark extends Benchmark {
+
+    private static final int PAGE = 20;
+
+    private Path file;
+    private ScoreStore store;
+    private ScoreIndex index;
+    private String op;
+    private final int[] page = new int[PAGE];
+    private final Random rand = new Random(42);
+
+    public HighscoreIndexBenchmark() {
+        param("entries", "1000", "100000", "10000000");
+        param("op", "rank", "percentile", "page");
+    }
+
+    @Override
+    public void setup(Map<String, String> params) {
+        op = params.get("op");
+        int entries = intParam(params, "entries");
+        if (store != null && store.size() == entries) return; // Same data as the last combination
+        try {
+            if (store != null) {
+                store.close();
+                Files.delete(file);
+            }
+            file = Files.createTempFile("highscores", ".dat");
+            Files.delete(file);
+            store = new ScoreStore(file);
+            file.toFile().deleteOnExit();
+            Random r = new Random(42);
+            long[] keys = new long[entries];
+            for (int i = 0; i < entries; i++) {
+                int score = r.nextInt(100_000);
+                store.append("player" + r.nextInt(10_000), score, i);
+                keys[i] = ScoreIndex.key(score, i);
+            }
+            index = new ScoreIndex(keys, entries);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public long run() {
+        switch (op) {
+            case "rank":
+                return index.rank(rand.nextInt(100_000));
+            case "percentile":
+                return (long) index.percentile(rand.nextInt(100_000));
+            default:
+                int n = index.page(rand.nextInt(Math.max(1, index.size() - PAGE)), page);
+                long acc = 0;
+                for (int i = 0; i < n; i++) {
+                    acc += store.getScore(page[i]) + store.getName(page[i]).length();
+                }
+                return acc;
+        }
+    }
+}
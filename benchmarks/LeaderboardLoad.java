@@ -0,0 +1,168 @@
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load generator for {@link LeaderboardServer}. Submitter threads post
+ * batches of random scores as fast as the server takes them while query
+ * threads ask for the top 20 and for the rank of random scores. Reports
+ * scores submitted per second and the latency of each kind of request.
+ * <p>
+ * Usage: {@code LeaderboardLoad [-d seconds] [-c submitters] [-b batch] [-q queriers] [url]}
+ * (defaults 10, 16, 50 and 4). Without a url a server is started in this
+ * process on a free localhost port, with a temporary score file.
+ */
+public class LeaderboardLoad {
+
+    /** Latencies of one kind of request from one thread. */
+    private static class Latencies {
+        long[] nanos = new long[1024];
+        int count;
+
+        void add(long n) {
+            if (count == nanos.length) nanos = Arrays.copyOf(nanos, count * 2);
+            nanos[count++] = n;
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int seconds = 10;
+        int submitters = 16;
+        int batch = 50;
+        int queriers = 4;
+        String url = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-d" -> seconds = Integer.parseInt(args[++i]);
+                case "-c" -> submitters = Integer.parseInt(args[++i]);
+                case "-b" -> batch = Integer.parseInt(args[++i]);
+                case "-q" -> queriers = Integer.parseInt(args[++i]);
+                default -> url = args[i];
+            }
+        }
+
+        LeaderboardServer server = null;
+        Path file = null;
+        if (url == null) {
+            file = Files.createTempFile("leaderboard", ".dat");
+            Files.delete(file);
+            server = new LeaderboardServer(0, file);
+            server.start();
+            url = "http://localhost:" + server.getPort();
+        }
+        String base = url.replaceAll("/+$", "");
+
+        HttpClient http = HttpClient.newHttpClient();
+        AtomicLong scores = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        List<Latencies> submits = new ArrayList<>();
+        List<Latencies> tops = new ArrayList<>();
+        List<Latencies> ranks = new ArrayList<>();
+        long end = System.nanoTime() + seconds * 1_000_000_000L;
+
+        long start = System.nanoTime();
+        try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int t = 0; t < submitters; t++) {
+                Latencies latencies = new Latencies();
+                submits.add(latencies);
+                int seed = t;
+                int size = batch;
+                threads.submit(() -> {
+                    Random rand = new Random(seed);
+                    URI uri = URI.create(base + "/scores");
+                    while (System.nanoTime() < end) {
+                        StringBuilder body = new StringBuilder();
+                        for (int i = 0; i < size; i++) {
+                            body.append("player").append(rand.nextInt(100_000)).append(" - ")
+                                    .append(rand.nextInt(1_000_000)).append('\n');
+                        }
+                        HttpRequest request = HttpRequest.newBuilder(uri)
+                                .POST(HttpRequest.BodyPublishers.ofString(body.toString())).build();
+                        if (timed(http, request, latencies, errors)) scores.addAndGet(size);
+                    }
+                    return null;
+                });
+            }
+            for (int t = 0; t < queriers; t++) {
+                Latencies top = new Latencies();
+                Latencies rank = new Latencies();
+                tops.add(top);
+                ranks.add(rank);
+                int seed = 1000 + t;
+                threads.submit(() -> {
+                    Random rand = new Random(seed);
+                    HttpRequest topRequest = HttpRequest.newBuilder(URI.create(base + "/top?n=20")).build();
+                    while (System.nanoTime() < end) {
+                        timed(http, topRequest, top, errors);
+                        HttpRequest rankRequest = HttpRequest.newBuilder(
+                                URI.create(base + "/rank?score=" + rand.nextInt(1_000_000))).build();
+                        timed(http, rankRequest, rank, errors);
+                    }
+                    return null;
+                });
+            }
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%d submitters x %d scores per batch, %d queriers, %.1f s%n",
+                submitters, batch, queriers, elapsed);
+        System.out.printf("submitted %d scores: %.0f scores/s%n", scores.get(), scores.get() / elapsed);
+        report("POST /scores", submits, elapsed);
+        report("GET /top", tops, elapsed);
+        report("GET /rank", ranks, elapsed);
+        if (errors.get() > 0) System.out.println("errors: " + errors.get());
+
+        if (server != null) {
+            server.stop();
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /** Sends a request, recording its latency if it succeeds. */
+    private static boolean timed(HttpClient http, HttpRequest request, Latencies latencies, AtomicLong errors) {
+        long t0 = System.nanoTime();
+        try {
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() == 200) {
+                latencies.add(System.nanoTime() - t0);
+                return true;
+            }
+        } catch (IOException e) {
+            // Counted below
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        errors.incrementAndGet();
+        return false;
+    }
+
+    private static void report(String name, List<Latencies> perThread, double elapsed) {
+        int total = 0;
+        for (Latencies l : perThread) total += l.count;
+        long[] all = new long[total];
+        int at = 0;
+        for (Latencies l : perThread) {
+            System.arraycopy(l.nanos, 0, all, at, l.count);
+            at += l.count;
+        }
+        if (total == 0) {
+            System.out.printf("%-14s no requests%n", name);
+            return;
+        }
+        Arrays.sort(all);
+        System.out.printf("%-14s %8.0f req/s  p50 %7.2f ms  p99 %7.2f ms  max %7.2f ms%n",
+                name, total / elapsed, all[total / 2] / 1e6, all[(int) (total * 0.99)] / 1e6,
+                all[total - 1] / 1e6);
+    }
+}
@@ -0,0 +1,27 @@
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Generates a complete map, including its obstacles and occupancy bitmap.
+ * Higher levels place more obstacles.
+ */
+public class MapGenerationBenchmark extends Benchmark {
+
+    private final Random rand = new Random(42);
+    private int level;
+
+    public MapGenerationBenchmark() {
+        param("level", "1", "5", "10", "20");
+    }
+
+    @Override
+    public void setup(Map<String, String> params) {
+        level = intParam(params, "level");
+    }
+
+    @Override
+    public long run() {
+        MapGenerator map = new MapGenerator(10, 10, 75, level, rand);
+        return map.getObstacles().size();
+    }
+}
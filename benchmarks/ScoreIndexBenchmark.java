@@ -0,0 +1,61 @@
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Adds scores to and looks them up in a {@link ScoreIndex} that already holds
+ * many entries, as {@link HighscoreManager} does for every finished run.
+ * Adding includes the share of the merges it triggers; lookups see a
+ * partly filled delta array, as they do between merges. Once the index has
+ * doubled it is rebuilt from the starting keys, which are kept sorted so the
+ * rebuild is a copy.
+ */
+public class ScoreIndexBenchmark extends Benchmark {
+
+    private long[] startKeys;
+    private ScoreIndex index;
+    private int next;
+    private String op;
+    private final Random rand = new Random(42);
+
+    public ScoreIndexBenchmark() {
+        param("entries", "1000", "100000", "1000000");
+        param("op", "add", "rank", "get");
+    }
+
+    @Override
+    public void setup(Map<String, String> params) {
+        op = params.get("op");
+        int entries = intParam(params, "entries");
+        Random r = new Random(42);
+        startKeys = new long[entries];
+        for (int i = 0; i < entries; i++) {
+            startKeys[i] = ScoreIndex.key(r.nextInt(100_000), i);
+        }
+        Arrays.sort(startKeys);
+        rebuild();
+        // Leave some keys in the delta array for the lookups
+        for (int i = 0; i < 100; i++) {
+            index.add(r.nextInt(100_000), next++);
+        }
+    }
+
+    private void rebuild() {
+        index = new ScoreIndex(Arrays.copyOf(startKeys, startKeys.length), startKeys.length);
+        next = startKeys.length;
+    }
+
+    @Override
+    public long run() {
+        switch (op) {
+            case "add":
+                if (next == startKeys.length * 2) rebuild();
+                index.add(rand.nextInt(100_000), next++);
+                return index.size();
+            case "rank":
+                return index.rank(rand.nextInt(100_000));
+            default:
+                return index.get(rand.nextInt(index.size()));
+        }
+    }
+}
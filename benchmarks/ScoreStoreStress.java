@@ -0,0 +1,134 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stress test for several game processes sharing one score file. Starts a
+ * number of writer processes that each record scores through
+ * {@link HighscoreManager} as fast as they can, plus a reader process that
+ * follows the file without locking and checks every record it sees. When
+ * all have finished, checks that every score is in the file exactly once,
+ * in the order its process recorded it.
+ * <p>
+ * Usage: {@code ScoreStoreStress [processes] [scoresPerProcess]} (defaults
+ * 8 and 20000). Exits with status 1 if anything is missing, duplicated or
+ * torn.
+ */
+public class ScoreStoreStress {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && args[0].equals("--writer")) {
+            writer(Integer.parseInt(args[1]), Integer.parseInt(args[2]));
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--reader")) {
+            reader(Paths.get(args[1]), Integer.parseInt(args[2]));
+            return;
+        }
+        int processes = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int scores = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+
+        Path dir = Files.createTempDirectory("scores");
+        Path file = dir.resolve("highscores.dat");
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        String classpath = System.getProperty("java.class.path");
+
+        long start = System.nanoTime();
+        List<Process> children = new ArrayList<>();
+        children.add(start(dir, java, "-cp", classpath, ScoreStoreStress.class.getName(), "--reader", file.toString(),
+                Integer.toString(processes * scores)));
+        for (int i = 0; i < processes; i++) {
+            children.add(start(dir, java, "-cp", classpath, ScoreStoreStress.class.getName(), "--writer", Integer.toString(i), Integer.toString(scores)));
+        }
+        boolean ok = true;
+        for (Process child : children) {
+            ok &= child.waitFor() == 0;
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        try (ScoreStore store = new ScoreStore(file)) {
+            ok &= verify(store, processes, scores);
+        }
+        System.out.printf("%d processes x %d scores in %.2f s (%.0f scores/s including JVM startup)%n",
+                processes, scores, seconds, processes * scores / seconds);
+        deleteAll(dir);
+        System.out.println(ok ? "OK" : "FAILED");
+        System.exit(ok ? 0 : 1);
+    }
+
+    private static Process start(Path dir, String... command) throws IOException {
+        return new ProcessBuilder(command).directory(dir.toFile()).inheritIO().start();
+    }
+
+    /** Records scores 0 to count - 1 as player "w{id}". */
+    private static void writer(int id, int count) {
+        for (int i = 0; i < count; i++) {
+            HighscoreManager.addScore("w" + id, i);
+        }
+        HighscoreManager.flush();
+        int seen = HighscoreManager.getEntryCount();
+        if (seen < count) {
+            System.err.println("Writer " + id + " sees " + seen + " scores, fewer than it wrote");
+            System.exit(1);
+        }
+    }
+
+    /** Follows the file until it holds {@code total} records, checking each one. */
+    private static void reader(Path file, int total) throws IOException, InterruptedException {
+        while (!Files.exists(file)) Thread.sleep(1);
+        try (ScoreStore store = new ScoreStore(file)) {
+            int checked = 0;
+            int refreshes = 0;
+            long deadline = System.nanoTime() + 120_000_000_000L;
+            while (checked < total && System.nanoTime() < deadline) {
+                int size = store.refresh();
+                refreshes++;
+                if (size < checked) fail("Count went back from " + checked + " to " + size);
+                if (size == checked) Thread.sleep(1); // Like polling once a frame
+                for (; checked < size; checked++) {
+                    String name = store.getName(checked);
+                    int score = store.getScore(checked);
+                    if (!name.matches("w\\d+") || score < 0) {
+                        fail("Torn record " + checked + ": " + name + " - " + score);
+                    }
+                }
+            }
+            if (checked < total) fail("Reader saw only " + checked + " of " + total + " records");
+            System.out.println("Reader checked " + checked + " records in " + refreshes + " refreshes");
+        }
+    }
+
+    private static boolean verify(ScoreStore store, int processes, int scores) {
+        int[] next = new int[processes];
+        int size = store.refresh();
+        boolean ok = size == processes * scores;
+        if (!ok) System.err.println("Expected " + processes * scores + " records, found " + size);
+        for (int record = 0; record < size; record++) {
+            int id = Integer.parseInt(store.getName(record).substring(1));
+            int score = store.getScore(record);
+            if (score != next[id]) {
+                System.err.println("Record " + record + ": w" + id + " - " + score + ", expected " + next[id]);
+                return false;
+            }
+            next[id]++;
+        }
+        return ok;
+    }
+
+    private static void fail(String message) {
+        System.err.println(message);
+        System.exit(1);
+    }
+
+    private static void deleteAll(Path dir) {
+        File[] files = dir.toFile().listFiles();
+        if (files != null) {
+            for (File f : files) f.delete();
+        }
+        dir.toFile().delete();
+    }
+}
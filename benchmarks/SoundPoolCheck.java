@@ -0,0 +1,177 @@
+import javax.sound.sampled.Clip;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Checks the sound effect pools without a sound device, on stand-in clips
+ * that only record whether they are open and playing:
+ * <ul>
+ *     <li>stealing: a full pool reuses its oldest voice, and stopping the
+ *     handle of the play that was cut off leaves the new sound playing</li>
+ *     <li>eviction: clips count against the memory cap, and the effect played
+ *     least recently is the one evicted, with its pool closed</li>
+ *     <li>concurrency: threads playing while others' plays evict pools never
+ *     start a clip that has been closed</li>
+ * </ul>
+ * Usage: {@code SoundPoolCheck}. Needs {@code res} on the class path and
+ * exits with status 1 if a check fails.
+ */
+public class SoundPoolCheck {
+
+    /** State of one stand-in clip. */
+    private static class FakeClip {
+        boolean open, active, closed;
+    }
+
+    private static final AtomicInteger closedStarts = new AtomicInteger();
+    private static final List<FakeClip> made = new ArrayList<>();
+    private static boolean ok = true;
+
+    public static void main(String[] args) throws Exception {
+        checkSteal();
+        checkEviction();
+        checkConcurrentEviction();
+        System.out.println(ok ? "OK" : "FAILED");
+        System.exit(ok ? 0 : 1);
+    }
+
+    private static void checkSteal() throws Exception {
+        made.clear();
+        SampleCache.Sample sample = SampleCache.decode("LaserGunshot.wav");
+        ClipPool pool = new ClipPool(sample, 2, 1, SoundPoolCheck::fakeClip);
+        long first = pool.play();
+        long second = pool.play();
+        long third = pool.play(); // Steals the first play's voice
+        check(pool.getSteals() == 1, "steals " + pool.getSteals() + ", expected 1");
+        check(pool.getActiveVoices() == 2, "active voices " + pool.getActiveVoices() + ", expected 2");
+        pool.stop(first);
+        check(made.get(0).active, "stopping a stolen play cut off the play that took its voice");
+        pool.stop(third);
+        check(!made.get(0).active, "stopping a play didn't stop its clip");
+        pool.stop(second);
+        check(!made.get(1).active, "stopping a play didn't stop its clip");
+        pool.close();
+        pool.stop(third); // Harmless once closed
+        System.out.println("steal and stop checked");
+    }
+
+    private static void checkEviction() {
+        made.clear();
+        int voices = 2;
+        long a = SampleCache.decode("LaserGunshot.wav").data.length;
+        long b = SampleCache.decode("DamageNoise.wav").data.length;
+        long c = SampleCache.decode("Shotgun.wav").data.length;
+        // Room for all three samples alone, but not with their clips' copies
+        long cap = (voices + 1) * (a + b + c) - 1;
+        EffectClips effects = new EffectClips(cap, voices, 1, SoundPoolCheck::fakeClip);
+
+        effects.play("LaserGunshot.wav");
+        effects.play("DamageNoise.wav");
+        ClipPool damage = effects.getPool("DamageNoise.wav");
+        effects.play("LaserGunshot.wav"); // Most recently used from now on
+        effects.play("Shotgun.wav");
+
+        long cached = effects.getSamples().getCachedBytes();
+        check(effects.getPool("LaserGunshot.wav") != null, "the effect played most recently was evicted");
+        check(effects.getPool("DamageNoise.wav") == null, "the effect played least recently was kept");
+        check(damage != null && clipsClosed(voices, 2 * voices), "the evicted pool's clips weren't closed");
+        check(cached == (voices + 1) * (a + c), "cached " + cached + " bytes, expected " + (voices + 1) * (a + c));
+        check(cached <= cap, "cached " + cached + " bytes, over the cap of " + cap);
+        System.out.println("eviction checked, " + cached + " of " + cap + " bytes cached");
+    }
+
+    private static void checkConcurrentEviction() throws Exception {
+        made.clear();
+        String[] sounds = {"LaserGunshot.wav", "DamageNoise.wav", "Shotgun.wav", "GunShot.wav"};
+        long largest = 0;
+        for (String sound : sounds) largest = Math.max(largest, SampleCache.decode(sound).data.length);
+        // The two largest sounds don't fit together, so switching between them evicts
+        int voices = 4;
+        EffectClips effects = new EffectClips((voices + 1) * largest * 3 / 2, voices, 1, SoundPoolCheck::fakeClip);
+        AtomicInteger failures = new AtomicInteger();
+        AtomicInteger plays = new AtomicInteger();
+        long end = System.nanoTime() + 1_000_000_000L;
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Random rand = new Random(t);
+            Thread thread = new Thread(() -> {
+                while (System.nanoTime() < end) {
+                    try {
+                        SoundPlayer.Playback playback = effects.play(sounds[rand.nextInt(sounds.length)]);
+                        if (playback == null) failures.incrementAndGet();
+                        else if (rand.nextBoolean()) playback.stop();
+                        plays.incrementAndGet();
+                    } catch (IllegalStateException e) {
+                        failures.incrementAndGet(); // Played on a closed pool
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) thread.join();
+        long evictions = effects.getSamples().getEvictions();
+        check(failures.get() == 0, failures.get() + " plays failed");
+        check(closedStarts.get() == 0, closedStarts.get() + " plays started a closed clip");
+        check(evictions > 0, "nothing was evicted");
+        System.out.println("concurrent eviction checked, " + plays.get() + " plays, " + evictions + " evictions");
+    }
+
+    /** @return true if the clips made from {@code from} up to {@code to} are closed */
+    private static boolean clipsClosed(int from, int to) {
+        synchronized (made) {
+            for (int i = from; i < to; i++) {
+                if (!made.get(i).closed) return false;
+            }
+        }
+        return true;
+    }
+
+    /** @return a clip that plays nothing and only records its state */
+    private static Clip fakeClip() {
+        FakeClip state = new FakeClip();
+        synchronized (made) {
+            made.add(state);
+        }
+        return (Clip) Proxy.newProxyInstance(Clip.class.getClassLoader(), new Class<?>[] {Clip.class},
+                (proxy, method, args) -> {
+                    synchronized (state) {
+                        switch (method.getName()) {
+                            case "open" -> state.open = true;
+                            case "start" -> {
+                                if (state.closed) closedStarts.incrementAndGet();
+                                state.active = true;
+                            }
+                            case "stop" -> state.active = false;
+                            case "close" -> {
+                                state.closed = true;
+                                state.active = false;
+                            }
+                            case "isActive", "isRunning" -> {
+                                return state.active;
+                            }
+                            case "isOpen" -> {
+                                return state.open && !state.closed;
+                            }
+                            case "getControl" -> throw new IllegalArgumentException("No controls");
+                        }
+                    }
+                    Class<?> type = method.getReturnType();
+                    if (type == boolean.class) return false;
+                    if (type == int.class) return 0;
+                    if (type == long.class) return 0L;
+                    if (type == float.class) return 0f;
+                    return null;
+                });
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            System.err.println("FAILED: " + message);
+            ok = false;
+        }
+    }
+}
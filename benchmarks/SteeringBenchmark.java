@@ -0,0 +1,63 @@
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Moves every enemy one step towards the player using the shared flow field,
+ * through the {@link EnemyAiScheduler} with tiering off so that every enemy
+ * thinks and moves, as the game's nearest enemies do each tick. Enemies are
+ * put back at their starting tiles before each step, so every operation
+ * steers the same crowd across the map.
+ */
+public class SteeringBenchmark extends Benchmark {
+
+    private MapGenerator map;
+    private Player player;
+    private final FlowField flowField = new FlowField();
+    private final EnemyAiScheduler scheduler = new EnemyAiScheduler(false);
+    private final ArrayList<Enemy> enemies = new ArrayList<>();
+    private int[] startX, startY;
+
+    public SteeringBenchmark() {
+        param("enemies", "10", "100", "1000");
+        param("level", "1", "5", "10");
+    }
+
+    @Override
+    public void setup(Map<String, String> params) {
+        Random rand = new Random(42);
+        map = new MapGenerator(10, 10, 75, intParam(params, "level"), rand);
+        player = new Player(415, 415, 70, 70, 5, GameWorld.WIDTH, GameWorld.HEIGHT);
+
+        List<Rectangle> tiles = map.getWalkableTiles();
+        int count = intParam(params, "enemies");
+        enemies.clear();
+        startX = new int[count];
+        startY = new int[count];
+        for (int i = 0; i < count; i++) {
+            Rectangle tile = tiles.get(rand.nextInt(tiles.size()));
+            startX[i] = tile.x;
+            startY[i] = tile.y;
+            enemies.add(new BasicEnemy(tile.x, tile.y, 75, 75, 2.5, i, GameWorld.WIDTH, GameWorld.HEIGHT));
+        }
+    }
+
+    @Override
+    public long run() {
+        flowField.update(map, player.x + player.width / 2, player.y + player.height / 2);
+        for (int i = 0; i < enemies.size(); i++) {
+            Enemy e = enemies.get(i);
+            e.x = startX[i];
+            e.y = startY[i];
+            e.syncPosition();
+        }
+        scheduler.update(enemies, player, map, flowField, 0);
+        long moved = 0;
+        for (Enemy e : enemies) {
+            moved += e.x + e.y;
+        }
+        return moved;
+    }
+}
@@ -0,0 +1,50 @@
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Steps a headless game world with scripted input: the player circles and
+ * fires every few ticks. The wave is restarted whenever it ends and the
+ * world is replaced once the player dies, so the benchmark keeps exercising
+ * the full tick.
+ */
+public class WorldStepBenchmark extends Benchmark {
+
+    private final InputFrame input = new InputFrame();
+    private GameWorld world;
+    private Random rand;
+    private long tick;
+
+    public WorldStepBenchmark() {
+        param("seed", "42");
+    }
+
+    @Override
+    public void setup(Map<String, String> params) {
+        rand = new Random(Long.parseLong(params.get("seed")));
+        world = new GameWorld(rand);
+        tick = 0;
+    }
+
+    @Override
+    public long run() {
+        if (world.isGameOver()) {
+            world = new GameWorld(rand);
+        }
+        if (!world.isWaveInProgress()) {
+            world.startWave();
+        }
+
+        // Change direction every half second and fire every 80 ms
+        int phase = (int) (tick / 50 % 4);
+        input.clear();
+        input.up = phase == 0;
+        input.right = phase == 1;
+        input.down = phase == 2;
+        input.left = phase == 3;
+        input.fire = tick % 8 == 0;
+        tick++;
+
+        world.step(input);
+        return world.getScore();
+    }
+}